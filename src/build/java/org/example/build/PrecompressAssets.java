@@ -0,0 +1,85 @@
+package org.example.build;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes {@code .gz} and {@code .br} variants next to every compressible static asset,
+ * which Spring's {@code EncodedResourceResolver} then serves to clients that accept them.
+ * Run by the build with the Java source launcher, see the {@code precompress-assets}
+ * execution in the pom. Brotli needs brotli4j's native library for the build platform;
+ * without it only gzip variants are written.
+ */
+public final class PrecompressAssets {
+
+    private static final Set<String> EXTENSIONS = Set.of("js", "css", "svg", "json", "txt");
+    private static final int MIN_SIZE = 1024;
+
+    private PrecompressAssets() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path root = Path.of(args[0]);
+        boolean brotli = Brotli4jLoader.isAvailable();
+        if (!brotli) {
+            System.out.println("[assets] brotli4j native library not available, writing gzip variants only");
+        }
+        List<Path> assets;
+        try (Stream<Path> files = Files.walk(root)) {
+            assets = files.filter(Files::isRegularFile).filter(PrecompressAssets::isCompressible).toList();
+        }
+        for (Path asset : assets) {
+            byte[] content = Files.readAllBytes(asset);
+            if (content.length < MIN_SIZE) {
+                continue;
+            }
+            int gzipped = write(asset, ".gz", gzip(content), content.length);
+            int brotlied = brotli ? write(asset, ".br", Encoder.compress(content, new Encoder.Parameters().setQuality(11)),
+                    content.length) : -1;
+            System.out.printf("[assets] %s: %d bytes, gzip %d, brotli %d%n",
+                    root.relativize(asset), content.length, gzipped, brotlied);
+        }
+    }
+
+    private static boolean isCompressible(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Writes the variant only if it is smaller than the asset, and removes a stale one otherwise.
+     */
+    private static int write(Path asset, String extension, byte[] compressed, int originalLength) throws IOException {
+        Path variant = asset.resolveSibling(asset.getFileName() + extension);
+        if (compressed.length >= originalLength) {
+            Files.deleteIfExists(variant);
+            return -1;
+        }
+        Files.write(variant, compressed);
+        return compressed.length;
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 3);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.benchmark;
+
+import org.example.service.RingBuffer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the audit overflow policy costs request threads once the buffer is saturated. Two
+ * producers enqueue in a tight loop while one consumer drains batches of up to 500, the
+ * way the audit writer does, spending {@code writeCost} tokens per entry to stand in for
+ * the insert. With DROP, producers never wait, and {@code accepted} is the rate the
+ * consumer sustains. With BLOCK, nothing is dropped and {@code enqueue} falls to that
+ * rate. The {@code accepted} and {@code dropped} counters are per millisecond, summed
+ * over both producers.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditBufferBenchmark {
+
+    private static final Object ENTRY = new Object();
+
+    @Param({"DROP", "BLOCK"})
+    public String overflow;
+
+    @Param({"0", "200"})
+    public long writeCost;
+
+    @Param({"1024"})
+    public int capacity;
+
+    private RingBuffer<Object> buffer;
+    private long blockTimeoutNanos;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        buffer = new RingBuffer<>(capacity);
+        blockTimeoutNanos = "BLOCK".equals(overflow) ? TimeUnit.SECONDS.toNanos(1) : 0;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ProducerCounters {
+        public long accepted;
+        public long dropped;
+    }
+
+    @State(Scope.Thread)
+    public static class ConsumerBatch {
+        final List<Object> batch = new ArrayList<>(500);
+    }
+
+    @Benchmark
+    @Group("audit")
+    @GroupThreads(2)
+    public void enqueue(ProducerCounters counters) {
+        boolean accepted = blockTimeoutNanos > 0 ? buffer.offer(ENTRY, blockTimeoutNanos) : buffer.offer(ENTRY);
+        if (accepted) {
+            counters.accepted++;
+        } else {
+            counters.dropped++;
+        }
+    }
+
+    @Benchmark
+    @Group("audit")
+    @GroupThreads(1)
+    public void drain(ConsumerBatch consumer) {
+        int drained = buffer.drainTo(consumer.batch, 500);
+        if (writeCost > 0 && drained > 0) {
+            Blackhole.consumeCPU(writeCost * drained);
+        }
+        consumer.batch.clear();
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.benchmark;
+
+import org.example.config.RoleMaskAuthorizationManager;
+import org.example.config.WebSecurityConfig;
+import org.example.service.TokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authorization of an API call: converting the verified JWT into an
+ * authentication and checking {@code hasRole("ADMIN")} on it. The string path is Spring
+ * Security's stock converter and {@link AuthorityAuthorizationManager}, which build a
+ * {@code SimpleGrantedAuthority} per role and compare authority strings. The mask path
+ * uses the shared role authorities and {@link RoleMaskAuthorizationManager}. Run with
+ * {@code -prof gc} to see the allocation per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorizationBenchmark {
+
+    @Param({"admin", "user"})
+    public String principal;
+
+    private Jwt jwt;
+    private JwtAuthenticationConverter stringConverter;
+    private JwtAuthenticationConverter maskConverter;
+    private AuthorizationManager<Object> stringAdmin;
+    private AuthorizationManager<Object> maskAdmin;
+
+    @Setup
+    public void setUp() {
+        List<String> roles = "admin".equals(principal) ? List.of("ADMIN", "USER") : List.of("USER");
+        jwt = Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject(principal + "@mail.ru")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(900))
+                .claim(TokenService.CLAIM_USER_ID, 1L)
+                .claim(TokenService.CLAIM_ROLES, roles)
+                .build();
+
+        JwtGrantedAuthoritiesConverter authorities = new JwtGrantedAuthoritiesConverter();
+        authorities.setAuthoritiesClaimName(TokenService.CLAIM_ROLES);
+        authorities.setAuthorityPrefix("ROLE_");
+        stringConverter = new JwtAuthenticationConverter();
+        stringConverter.setJwtGrantedAuthoritiesConverter(authorities);
+        stringAdmin = AuthorityAuthorizationManager.hasRole("ADMIN");
+
+        maskConverter = WebSecurityConfig.jwtAuthenticationConverter();
+        maskAdmin = RoleMaskAuthorizationManager.hasRole("ADMIN");
+    }
+
+    @Benchmark
+    public boolean authorityStrings() {
+        AbstractAuthenticationToken authentication = stringConverter.convert(jwt);
+        return stringAdmin.check(() -> authentication, null).isGranted();
+    }
+
+    @Benchmark
+    public boolean roleMask() {
+        AbstractAuthenticationToken authentication = maskConverter.convert(jwt);
+        return maskAdmin.check(() -> authentication, null).isGranted();
+    }
+}
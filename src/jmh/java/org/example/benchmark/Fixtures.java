@@ -0,0 +1,44 @@
+package org.example.benchmark;
+
+import org.example.model.Role;
+import org.example.model.User;
+import org.example.repository.RoleRepository;
+import org.example.service.RoleCatalog;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.Mockito.mock;
+
+final class Fixtures {
+
+    static final Role ADMIN = role(1L, "ADMIN");
+    static final Role USER = role(2L, "USER");
+
+    private Fixtures() {
+    }
+
+    static Role role(Long id, String name) {
+        Role role = new Role(name);
+        role.setId(id);
+        return role;
+    }
+
+    static RoleCatalog roleCatalog(RoleRepository roleRepository) {
+        RoleCatalog catalog = new RoleCatalog(roleRepository);
+        catalog.putAll(List.of(ADMIN, USER));
+        return catalog;
+    }
+
+    static RoleCatalog roleCatalog() {
+        return roleCatalog(mock(RoleRepository.class));
+    }
+
+    static User user(long id) {
+        User user = new User("First" + id, "Last" + id, 20 + (int) (id % 50), "user" + id + "@mail.ru",
+                "{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1x5D8xE8d2FQy9y3Zq0b6i2");
+        user.setId(id);
+        user.setRoles(id % 10 == 0 ? Set.of(ADMIN, USER) : Set.of(USER));
+        return user;
+    }
+}
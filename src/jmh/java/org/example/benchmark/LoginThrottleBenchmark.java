@@ -0,0 +1,62 @@
+package org.example.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.LoginThrottle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost the login throttle adds per attempt: the happy-path check for a clean account and
+ * address, the check for a key with recorded failures, and failure recording from many
+ * threads hammering one key (credential stuffing against a single account).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginThrottleBenchmark {
+
+    private static final String ADDRESS = "203.0.113.7";
+
+    private LoginThrottle throttle;
+
+    @Setup
+    public void setUp() {
+        throttle = new LoginThrottle(Duration.ofMinutes(5), 10, Integer.MAX_VALUE, Integer.MAX_VALUE, 100_000,
+                new SimpleMeterRegistry());
+        for (int i = 0; i < 10_000; i++) {
+            throttle.recordFailure("victim" + i + "@mail.ru", "198.51.100." + (i % 256));
+        }
+        throttle.recordFailure("failing@mail.ru", ADDRESS);
+    }
+
+    @Benchmark
+    public void checkCleanKeys() {
+        throttle.check("admin@mail.ru", "192.0.2.1");
+    }
+
+    @Benchmark
+    public void checkKeysWithFailures() {
+        throttle.check("failing@mail.ru", ADDRESS);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void recordFailureContended() {
+        throttle.recordFailure("failing@mail.ru", ADDRESS);
+    }
+}
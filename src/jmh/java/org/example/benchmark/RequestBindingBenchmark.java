@@ -0,0 +1,89 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.example.dto.CreateUserRequest;
+import org.example.dto.UpdateUserRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a create/update request body into something the service can use:
+ * the former {@code Map<String, Object>} binding against binding straight to the request
+ * records plus Bean Validation, with the object mapper configured the way Boot does it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestBindingBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private static final byte[] CREATE_BODY = ("{\"firstName\":\"Ivan\",\"lastName\":\"Ivanov\",\"age\":\"31\","
+            + "\"email\":\"ivan@mail.ru\",\"password\":\"secret\",\"roles\":[\"USER\",\"ADMIN\"]}").getBytes();
+    private static final byte[] UPDATE_BODY = ("{\"firstName\":\"Petr\",\"age\":40,\"email\":\"user1@mail.ru\","
+            + "\"password\":\"\",\"roles\":[\"USER\"]}").getBytes();
+
+    private ObjectMapper objectMapper;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Map<String, Object> createAsMap() throws IOException {
+        return objectMapper.readValue(CREATE_BODY, MAP_TYPE);
+    }
+
+    @Benchmark
+    public CreateUserRequest createAsRecordWithoutValidation() throws IOException {
+        return objectMapper.readValue(CREATE_BODY, CreateUserRequest.class);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateUserRequest>> createAsRecord() throws IOException {
+        return validator.validate(objectMapper.readValue(CREATE_BODY, CreateUserRequest.class));
+    }
+
+    @Benchmark
+    public Map<String, Object> updateAsMap() throws IOException {
+        return objectMapper.readValue(UPDATE_BODY, MAP_TYPE);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UpdateUserRequest>> updateAsRecord() throws IOException {
+        return validator.validate(objectMapper.readValue(UPDATE_BODY, UpdateUserRequest.class));
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.benchmark;
+
+import org.example.SpringBootSecurityDemoApplication;
+import org.example.model.UserPrincipal;
+import org.example.service.TokenService;
+import org.example.service.UserDetailsServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Full request path (bearer token verification, controller, service, JPA) through MockMvc
+ * against an in-memory H2 database in PostgreSQL mode, seeded by the application itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RequestPathBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private String authorization;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(SpringBootSecurityDemoApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:jmh;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--app.security.password.bcrypt-strength=4",
+                "--logging.level.root=WARN");
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .build();
+        UserPrincipal admin = (UserPrincipal) context.getBean(UserDetailsServiceImpl.class)
+                .loadUserByUsername("admin@mail.ru");
+        authorization = "Bearer " + context.getBean(TokenService.class).issueTokens(admin.getId()).accessToken();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult listUsers() throws Exception {
+        return mockMvc.perform(get("/api/admin/users").param("size", "20").header(HttpHeaders.AUTHORIZATION, authorization)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult userById() throws Exception {
+        return mockMvc.perform(get("/api/admin/users/1").header(HttpHeaders.AUTHORIZATION, authorization)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult currentUserInfo() throws Exception {
+        return mockMvc.perform(get("/api/user/info").header(HttpHeaders.AUTHORIZATION, authorization)).andReturn();
+    }
+}
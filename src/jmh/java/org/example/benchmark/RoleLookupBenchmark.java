@@ -0,0 +1,59 @@
+package org.example.benchmark;
+
+import org.example.model.Role;
+import org.example.repository.RoleRepository;
+import org.example.service.RoleServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoleLookupBenchmark {
+
+    private RoleServiceImpl roleService;
+    private Set<String> knownRoles;
+    private long misses;
+
+    @Setup
+    public void setUp() {
+        RoleRepository roleRepository = mock(RoleRepository.class);
+        // every loaded role gets the same id, so it replaces the previous one and the catalog stays at three roles
+        when(roleRepository.findByNameIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> names = invocation.getArgument(0);
+            return names.stream().map(name -> Fixtures.role(3L, name)).toList();
+        });
+        roleService = new RoleServiceImpl(roleRepository, Fixtures.roleCatalog(roleRepository));
+        knownRoles = Set.of("ADMIN", "USER");
+    }
+
+    @Benchmark
+    public Set<Role> findRolesByNamesCached() {
+        return roleService.findRolesByNames(knownRoles);
+    }
+
+    @Benchmark
+    public Set<Role> findRolesByNamesWithMiss() {
+        // a name the catalog has not seen yet, so every invocation goes to the repository
+        return roleService.findRolesByNames(Set.of("ADMIN", "MANAGER_" + ++misses));
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.SuccessUserHandler;
+import org.example.model.UserPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SuccessHandlerBenchmark {
+
+    @Param({"admin", "user"})
+    public String principal;
+
+    private final SuccessUserHandler handler = new SuccessUserHandler(new SimpleMeterRegistry());
+    private final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+    private Authentication authentication;
+
+    @Setup
+    public void setUp() {
+        UserPrincipal userPrincipal = UserPrincipal.from(Fixtures.user("admin".equals(principal) ? 10L : 1L));
+        authentication = UsernamePasswordAuthenticationToken.authenticated(userPrincipal, null,
+                userPrincipal.getAuthorities());
+    }
+
+    @Benchmark
+    public String onAuthenticationSuccess() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.onAuthenticationSuccess(request, response, authentication);
+        return response.getRedirectedUrl();
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.benchmark;
+
+import org.example.dto.CreateUserRequest;
+import org.example.dto.UpdateUserRequest;
+import org.example.dto.UserView;
+import org.example.model.User;
+import org.example.repository.UserRepository;
+import org.example.service.RoleServiceImpl;
+import org.example.service.UserChangeService;
+import org.example.service.UserServiceImpl;
+import org.example.repository.RoleRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mapping cost of {@code createUser}/{@code updateUser}
+ * with the repository mocked and hashing replaced by a no-op, so only the service's own
+ * work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserMappingBenchmark {
+
+    private UserServiceImpl userService;
+    private CreateUserRequest createRequest;
+    private UpdateUserRequest updateRequest;
+
+    @Setup
+    public void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(Fixtures.user(1L)));
+
+        RoleRepository roleRepository = mock(RoleRepository.class);
+        RoleServiceImpl roleService = new RoleServiceImpl(roleRepository, Fixtures.roleCatalog(roleRepository));
+        userService = new UserServiceImpl(userRepository, roleService, new PlainPasswordEncoder(),
+                event -> { }, mock(UserChangeService.class));
+
+        createRequest = new CreateUserRequest("Ivan", "Ivanov", 31, "ivan@mail.ru", "secret",
+                Set.of("USER", "ADMIN"));
+        updateRequest = new UpdateUserRequest("Petr", null, 40, "user1@mail.ru", null, Set.of("USER"));
+    }
+
+    @Benchmark
+    public UserView createUser() {
+        return userService.createUser(createRequest);
+    }
+
+    @Benchmark
+    public UserView updateUser() {
+        return userService.updateUser(1L, updateRequest);
+    }
+
+    private static final class PlainPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
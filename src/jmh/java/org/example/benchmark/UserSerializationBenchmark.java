@@ -0,0 +1,74 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.RoleView;
+import org.example.dto.UserView;
+import org.example.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of user lists, comparing the {@link User} entity with the
+ * {@link UserView} projection that every endpoint now returns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UserSerializationBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int rows;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private List<User> entities;
+    private List<UserView> views;
+
+    @Setup
+    public void setUp() {
+        entities = new ArrayList<>(rows);
+        views = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            User user = Fixtures.user(id);
+            entities.add(user);
+            views.add(new UserView(user.getId(), user.getFirstName(), user.getLastName(), user.getAge(),
+                    user.getEmail(), user.getRoles().stream()
+                            .map(role -> new RoleView(role.getName()))
+                            .sorted(Comparator.comparing(RoleView::name))
+                            .toList()));
+        }
+    }
+
+    @Benchmark
+    public OutputStream serializeEntities() throws IOException {
+        OutputStream output = OutputStream.nullOutputStream();
+        objectMapper.writeValue(output, entities);
+        return output;
+    }
+
+    @Benchmark
+    public OutputStream serializeViews() throws IOException {
+        OutputStream output = OutputStream.nullOutputStream();
+        objectMapper.writeValue(output, views);
+        return output;
+    }
+}
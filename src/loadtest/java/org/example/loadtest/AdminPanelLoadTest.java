@@ -0,0 +1,170 @@
+package org.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bytes transferred and time to interactive for the admin panel, on a first visit and on
+ * a repeat visit with a warm browser cache, in two serving modes:
+ * <ul>
+ *     <li>{@code identity}: every asset uncompressed and fetched again on every visit,
+ *     which is how {@code admin.js} was served before the asset pipeline</li>
+ *     <li>{@code pipeline}: brotli variants under hashed URLs, reused from the cache for
+ *     as long as {@code Cache-Control} allows</li>
+ * </ul>
+ * There is no browser here, so time to interactive is modelled as the page load a
+ * browser would do before running the scripts at the end of the page: the document, then
+ * all its stylesheets and scripts in parallel, one round trip each and sharing the
+ * bandwidth of the configured link ({@code loadtest.rtt}, {@code loadtest.bandwidth-kbps},
+ * by default roughly a fast 3G connection). Script execution is not included. The page is
+ * also fetched over loopback, where only the server time counts, with the template cache
+ * off and on.
+ * <p>
+ * Run with {@code mvn -Ploadtest test-compile exec:exec
+ * -Dloadtest.main=org.example.loadtest.AdminPanelLoadTest}. The assets are the ones the
+ * build put in {@code target/classes}, so they are minified and precompressed.
+ */
+public final class AdminPanelLoadTest {
+
+    private static final Pattern ASSET = Pattern.compile("<(?:link[^>]*\\shref|script[^>]*\\ssrc)=\"(/[^\"]+)\"");
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final Path ADMIN_JS_SOURCE = Path.of("src/main/resources/static/js/admin.js");
+    private static final Path ADMIN_JS_BUILT = Path.of("target/classes/static/js/admin.js");
+
+    private AdminPanelLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTestSupport.parseOptions(args);
+        Duration rtt = Duration.parse(options.getOrDefault("loadtest.rtt", "PT0.15S"));
+        double bytesPerMilli = Integer.parseInt(options.getOrDefault("loadtest.bandwidth-kbps", "1600")) / 8.0;
+        int pageLoads = Integer.parseInt(options.getOrDefault("loadtest.page-loads", "500"));
+
+        Map<String, Histogram> documentLatency = new LinkedHashMap<>();
+        List<Visit> visits = new ArrayList<>();
+        for (boolean templateCache : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = LoadTestSupport.startApplication(
+                    templateCache ? "assets-cached" : "assets", options,
+                    Map.of("spring.thymeleaf.cache", String.valueOf(templateCache)))) {
+                String base = LoadTestSupport.baseUrl(context);
+                HttpClient http = HttpClient.newBuilder()
+                        .cookieHandler(new CookieManager())
+                        .followRedirects(HttpClient.Redirect.NEVER)
+                        .build();
+                if (!LoadTestSupport.isLoginSuccess(http.send(
+                        LoadTestSupport.loginRequest(base, "admin@mail.ru", "password"),
+                        HttpResponse.BodyHandlers.discarding()))) {
+                    throw new IllegalStateException("Form login as admin@mail.ru failed");
+                }
+                documentLatency.put(templateCache ? "template cache on" : "template cache off",
+                        documentLatency(http, base, pageLoads));
+                if (templateCache) {
+                    for (String mode : new String[]{"identity", "pipeline"}) {
+                        Map<String, Long> cachedFor = new LinkedHashMap<>();
+                        visits.add(visit(http, base, mode, "first visit", cachedFor));
+                        visits.add(visit(http, base, mode, "repeat visit", cachedFor));
+                    }
+                }
+            }
+        }
+
+        System.out.printf("%n%-10s %-13s %9s %12s %12s %14s%n",
+                "mode", "visit", "requests", "page bytes", "asset bytes", "modelled TTI");
+        for (Visit visit : visits) {
+            double millis = rtt.toMillis() + visit.documentBytes() / bytesPerMilli;
+            if (visit.requests() > 1) {
+                millis += rtt.toMillis() + visit.assetBytes() / bytesPerMilli;
+            }
+            System.out.printf("%-10s %-13s %9d %12d %12d %11.0f ms%n", visit.mode(), visit.visit(),
+                    visit.requests(), visit.documentBytes(), visit.assetBytes(), millis);
+        }
+        System.out.printf("(%d ms round trip, %s kbit/s)%n", rtt.toMillis(),
+                options.getOrDefault("loadtest.bandwidth-kbps", "1600"));
+
+        if (Files.exists(ADMIN_JS_SOURCE) && Files.exists(ADMIN_JS_BUILT)) {
+            System.out.printf("%nadmin.js: %d bytes source, %d minified%n",
+                    Files.size(ADMIN_JS_SOURCE), Files.size(ADMIN_JS_BUILT));
+        }
+
+        System.out.printf("%n%-20s %10s %10s%n", "GET /admin", "p50 ms", "p99 ms");
+        documentLatency.forEach((mode, latency) -> System.out.printf("%-20s %10s %10s%n", mode,
+                LoadTestSupport.millis(latency, 50), LoadTestSupport.millis(latency, 99)));
+        System.exit(0);
+    }
+
+    private static Histogram documentLatency(HttpClient http, String base, int pageLoads) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/admin")).GET().build();
+        Histogram latency = new Histogram(3);
+        for (int i = 0; i < pageLoads * 2; i++) {
+            long start = System.nanoTime();
+            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("GET /admin failed with " + response.statusCode());
+            }
+            // the first half warms up the server
+            if (i >= pageLoads) {
+                latency.recordValue((System.nanoTime() - start) / 1000);
+            }
+        }
+        return latency;
+    }
+
+    /**
+     * Loads the page and the assets it links, skipping those in {@code cachedFor} (asset
+     * path to its {@code max-age}), which a browser would reuse without asking.
+     */
+    private static Visit visit(HttpClient http, String base, String mode, String visit,
+                               Map<String, Long> cachedFor) throws Exception {
+        HttpResponse<String> page = http.send(HttpRequest.newBuilder(URI.create(base + "/admin")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        List<CompletableFuture<HttpResponse<byte[]>>> assets = new ArrayList<>();
+        Matcher matcher = ASSET.matcher(page.body());
+        while (matcher.find()) {
+            String path = matcher.group(1);
+            if (cachedFor.containsKey(path)) {
+                continue;
+            }
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path)).GET();
+            if ("pipeline".equals(mode)) {
+                request.header("Accept-Encoding", "br, gzip");
+            }
+            assets.add(http.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray()));
+        }
+        long assetBytes = 0;
+        for (CompletableFuture<HttpResponse<byte[]>> future : assets) {
+            HttpResponse<byte[]> asset = future.join();
+            if (asset.statusCode() != 200) {
+                throw new IllegalStateException(asset.uri() + " failed with " + asset.statusCode());
+            }
+            assetBytes += asset.body().length;
+            if ("pipeline".equals(mode)) {
+                asset.headers().firstValue("Cache-Control")
+                        .map(MAX_AGE::matcher)
+                        .filter(Matcher::find)
+                        .filter(maxAge -> Long.parseLong(maxAge.group(1)) > 0)
+                        .ifPresent(maxAge -> cachedFor.put(asset.uri().getPath(), Long.parseLong(maxAge.group(1))));
+            }
+        }
+        return new Visit(mode, visit, 1 + assets.size(), page.body().getBytes(StandardCharsets.UTF_8).length, assetBytes);
+    }
+
+    private record Visit(String mode, String visit, int requests, long documentBytes, long assetBytes) {
+    }
+}
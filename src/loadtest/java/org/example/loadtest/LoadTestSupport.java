@@ -0,0 +1,118 @@
+package org.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.example.SpringBootSecurityDemoApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+final class LoadTestSupport {
+
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"");
+
+    private LoadTestSupport() {
+    }
+
+    /**
+     * Parses {@code key=value} (optionally {@code --key=value}) arguments. Keys starting with
+     * {@code loadtest.} configure the harness; everything else is passed to the application.
+     */
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int separator = option.indexOf('=');
+            if (separator > 0) {
+                options.put(option.substring(0, separator), option.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Starts the application in-process on a random port. Unless overridden through the
+     * options it runs against an in-memory H2 database in PostgreSQL mode.
+     */
+    static ConfigurableApplicationContext startApplication(String database, Map<String, String> options,
+                                                           Map<String, String> forced) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:" + database
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        // The migrations are PostgreSQL-only; H2 gets its schema from Hibernate
+        properties.put("spring.flyway.enabled", "false");
+        properties.put("spring.jpa.hibernate.ddl-auto", "update");
+        properties.put("logging.level.root", "WARN");
+        properties.put("app.security.token.access-ttl", "PT12H");
+        options.forEach((key, value) -> {
+            if (!key.startsWith("loadtest.")) {
+                properties.put(key, value);
+            }
+        });
+        properties.putAll(forced);
+
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(SpringBootSecurityDemoApplication.class).run(args);
+    }
+
+    static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    static HttpRequest loginRequest(String base, String email, String password) {
+        String form = "email=" + URLEncoder.encode(email, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        return HttpRequest.newBuilder(URI.create(base + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+    }
+
+    static boolean isLoginSuccess(HttpResponse<?> response) {
+        return response.statusCode() == 302
+                && !response.headers().firstValue("Location").orElse("").contains("error");
+    }
+
+    /**
+     * Requests an API token pair and returns the {@code Authorization} header value to send
+     * with later requests. Tokens outlive any run of the harness, so they are never refreshed.
+     */
+    static String login(HttpClient http, String base, String email, String password) throws Exception {
+        String body = "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(base + "/api/auth/token"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login as " + email + " failed with status " + response.statusCode());
+        }
+        Matcher matcher = ACCESS_TOKEN.matcher(response.body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("No access token after login as " + email);
+        }
+        return "Bearer " + matcher.group(1);
+    }
+
+    static String millis(Histogram histogram, double percentile) {
+        return String.format("%.2f", histogram.getValueAtPercentile(percentile) / 1000.0);
+    }
+}
@@ -0,0 +1,344 @@
+package org.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load test of login, {@code /api/user/info} and admin CRUD against the
+ * application started in-process. Requests are issued on a fixed schedule at the
+ * configured rate and latency is measured from the scheduled send time, so a stalled
+ * server shows up in the percentiles instead of silently lowering the offered load.
+ * <p>
+ * Each endpoint first runs alone, which makes the Hibernate statement count per request
+ * attributable to it, followed by a phase with the configured mix. Full latency
+ * distributions are written to {@code target/loadtest/*.hgrm}.
+ * <p>
+ * Run with {@code mvn -Ploadtest test-compile exec:exec
+ * -Dloadtest.main=org.example.loadtest.MixedWorkloadLoadTest
+ * -Dloadtest.args="loadtest.users=10000 loadtest.rps=200 loadtest.duration=PT60S"}.
+ * Other options: {@code loadtest.warmup}, {@code loadtest.max-in-flight},
+ * {@code loadtest.isolated=false} to skip the per-endpoint phases, and
+ * {@code loadtest.mix=login:5,user-info:40,...}. Deletes consume users made by creates, so
+ * keep the create weight at least as high as the delete weight.
+ */
+public final class MixedWorkloadLoadTest {
+
+    private static final String DEFAULT_MIX =
+            "login:5,user-info:40,admin-list:20,admin-get:20,admin-create:5,admin-update:5,admin-delete:5";
+    private static final Path REPORT_DIR = Path.of("target", "loadtest");
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong createdCounter = new AtomicLong();
+    private final ConcurrentLinkedQueue<Long> createdIds = new ConcurrentLinkedQueue<>();
+
+    private final String base;
+    private final List<Long> seededIds;
+    private final String adminAuthorization;
+    private final String userAuthorization;
+    private final Statistics statistics;
+
+    private MixedWorkloadLoadTest(String base, List<Long> seededIds, String adminAuthorization, String userAuthorization,
+                                  Statistics statistics) {
+        this.base = base;
+        this.seededIds = seededIds;
+        this.adminAuthorization = adminAuthorization;
+        this.userAuthorization = userAuthorization;
+        this.statistics = statistics;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTestSupport.parseOptions(args);
+        int users = Integer.parseInt(options.getOrDefault("loadtest.users", "10000"));
+        int rps = Integer.parseInt(options.getOrDefault("loadtest.rps", "100"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("loadtest.max-in-flight", "1000"));
+        Duration warmup = Duration.parse(options.getOrDefault("loadtest.warmup", "PT10S"));
+        Duration duration = Duration.parse(options.getOrDefault("loadtest.duration", "PT30S"));
+        boolean isolated = Boolean.parseBoolean(options.getOrDefault("loadtest.isolated", "true"));
+        Map<Endpoint, Integer> mix = parseMix(options.getOrDefault("loadtest.mix", DEFAULT_MIX));
+
+        try (ConfigurableApplicationContext context = LoadTestSupport.startApplication("mixed", options,
+                Map.of("spring.jpa.properties.hibernate.generate_statistics", "true"))) {
+            String base = LoadTestSupport.baseUrl(context);
+
+            long seedStart = System.nanoTime();
+            List<Long> seededIds = UserSeeder.seed(context, users);
+            System.out.printf("Seeded %d users in %d ms%n", users,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+            HttpClient loginClient = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+            String adminAuthorization = LoadTestSupport.login(loginClient, base, "admin@mail.ru", "password");
+            String userAuthorization = LoadTestSupport.login(loginClient, base, UserSeeder.email(0), UserSeeder.PASSWORD);
+
+            MixedWorkloadLoadTest test = new MixedWorkloadLoadTest(base, seededIds, adminAuthorization, userAuthorization,
+                    context.getBean(Statistics.class));
+            Files.createDirectories(REPORT_DIR);
+
+            List<PhaseResult> results = new ArrayList<>();
+            if (isolated) {
+                for (Endpoint endpoint : mix.keySet()) {
+                    Map<Endpoint, Integer> single = new EnumMap<>(Endpoint.class);
+                    single.put(endpoint, 1);
+                    results.add(test.runPhase("isolated", single, rps, maxInFlight, warmup, duration));
+                }
+            }
+            results.add(test.runPhase("mixed", mix, rps, maxInFlight, warmup, duration));
+            report(results, System.out);
+        }
+    }
+
+    private PhaseResult runPhase(String name, Map<Endpoint, Integer> mix, int rps, int maxInFlight,
+                                 Duration warmup, Duration duration) throws IOException {
+        System.out.printf("Phase %s %s: %d req/s for %s after %s warmup%n", name, mix.keySet(), rps, duration, warmup);
+        Endpoint[] schedule = weightedSchedule(mix);
+        Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+        Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : mix.keySet()) {
+            latencies.put(endpoint, new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(5), 3));
+            errors.put(endpoint, new LongAdder());
+        }
+        LongAdder dropped = new LongAdder();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        SplittableRandom random = new SplittableRandom(42);
+
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        long statementsBefore = 0;
+        boolean measuring = false;
+
+        for (long n = 0; ; n++) {
+            long intended = start + n * periodNanos;
+            if (intended >= end) {
+                break;
+            }
+            if (!measuring && intended >= measureFrom) {
+                measuring = true;
+                statementsBefore = statistics.getPrepareStatementCount();
+            }
+            long delay = intended - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            Endpoint endpoint = schedule[random.nextInt(schedule.length)];
+            boolean record = intended >= measureFrom;
+            if (!inFlight.tryAcquire()) {
+                if (record) {
+                    dropped.increment();
+                }
+                continue;
+            }
+            send(endpoint, random.nextInt(Integer.MAX_VALUE)).whenComplete((success, failure) -> {
+                try {
+                    if (!record) {
+                        return;
+                    }
+                    if (failure == null && success) {
+                        Histogram histogram = latencies.get(endpoint);
+                        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                        histogram.recordValue(Math.min(micros, histogram.getHighestTrackableValue()));
+                    } else {
+                        errors.get(endpoint).increment();
+                    }
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+        inFlight.acquireUninterruptibly(maxInFlight);
+        inFlight.release(maxInFlight);
+        long statements = statistics.getPrepareStatementCount() - statementsBefore;
+
+        for (Map.Entry<Endpoint, Histogram> entry : latencies.entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(
+                    REPORT_DIR.resolve(name + "-" + entry.getKey().key + ".hgrm")))) {
+                entry.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        return new PhaseResult(name, duration, latencies, errors, dropped.sum(), statements);
+    }
+
+    private CompletableFuture<Boolean> send(Endpoint endpoint, int seed) {
+        return switch (endpoint) {
+            case LOGIN -> {
+                int index = seed % seededIds.size();
+                yield http.sendAsync(LoadTestSupport.loginRequest(base, UserSeeder.email(index), UserSeeder.PASSWORD),
+                        HttpResponse.BodyHandlers.discarding()).thenApply(LoadTestSupport::isLoginSuccess);
+            }
+            case USER_INFO -> get("/api/user/info", userAuthorization);
+            case ADMIN_LIST -> get("/api/admin/users?size=20", adminAuthorization);
+            case ADMIN_GET -> get("/api/admin/users/" + seededIds.get(seed % seededIds.size()), adminAuthorization);
+            case ADMIN_CREATE -> {
+                long number = createdCounter.incrementAndGet();
+                String body = "{\"firstName\":\"Created\",\"lastName\":\"Loadtest\",\"age\":30,"
+                        + "\"email\":\"created" + number + "@mail.ru\",\"password\":\"password\","
+                        + "\"roles\":[\"USER\"]}";
+                yield http.sendAsync(json("/api/admin/users", "POST", body), HttpResponse.BodyHandlers.ofString())
+                        .thenApply(response -> {
+                            if (response.statusCode() != 201) {
+                                return false;
+                            }
+                            createdIds.add(idOf(response.body()));
+                            return true;
+                        });
+            }
+            case ADMIN_UPDATE -> {
+                // take the id out while it is being updated so concurrent updates never race on one version
+                Long id = createdIds.poll();
+                long target = id != null ? id : seededIds.get(1 + seed % (seededIds.size() - 1));
+                yield http.sendAsync(json("/api/admin/users/" + target, "PUT",
+                                "{\"firstName\":\"Updated" + seed + "\"}"), HttpResponse.BodyHandlers.discarding())
+                        .thenApply(response -> response.statusCode() == 200)
+                        .whenComplete((success, failure) -> {
+                            if (id != null) {
+                                createdIds.add(id);
+                            }
+                        });
+            }
+            case ADMIN_DELETE -> {
+                Long id = createdIds.poll();
+                if (id == null) {
+                    yield CompletableFuture.completedFuture(false);
+                }
+                yield http.sendAsync(HttpRequest.newBuilder(URI.create(base + "/api/admin/users/" + id))
+                                .header("Authorization", adminAuthorization).DELETE().build(), HttpResponse.BodyHandlers.discarding())
+                        .thenApply(response -> response.statusCode() == 200);
+            }
+        };
+    }
+
+    private CompletableFuture<Boolean> get(String path, String authorization) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + path)).header("Authorization", authorization).GET().build();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> response.statusCode() == 200);
+    }
+
+    private HttpRequest json(String path, String method, String body) {
+        return HttpRequest.newBuilder(URI.create(base + path))
+                .header("Authorization", adminAuthorization)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private Long idOf(String body) {
+        try {
+            JsonNode node = objectMapper.readTree(body);
+            return node.get("id").asLong();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected create response: " + body, e);
+        }
+    }
+
+    private static Endpoint[] weightedSchedule(Map<Endpoint, Integer> mix) {
+        List<Endpoint> schedule = new ArrayList<>();
+        mix.forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                schedule.add(endpoint);
+            }
+        });
+        return schedule.toArray(Endpoint[]::new);
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.of(parts[0].trim()), weight);
+            }
+        }
+        return weights;
+    }
+
+    private static void report(List<PhaseResult> results, PrintStream out) {
+        out.printf("%n%-14s %-14s %9s %7s %8s %9s %9s %9s %9s %9s %10s%n", "phase", "endpoint", "requests",
+                "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "stmts/req");
+        for (PhaseResult result : results) {
+            long total = 0;
+            for (Map.Entry<Endpoint, Histogram> entry : result.latencies().entrySet()) {
+                Histogram histogram = entry.getValue();
+                long errors = result.errors().get(entry.getKey()).sum();
+                total += histogram.getTotalCount() + errors;
+                out.printf(Locale.ROOT, "%-14s %-14s %9d %7d %8.1f %9s %9s %9s %9s %9s %10s%n",
+                        result.name(), entry.getKey().key, histogram.getTotalCount(), errors,
+                        histogram.getTotalCount() / (double) result.duration().toSeconds(),
+                        LoadTestSupport.millis(histogram, 50), LoadTestSupport.millis(histogram, 90),
+                        LoadTestSupport.millis(histogram, 99), LoadTestSupport.millis(histogram, 99.9),
+                        String.format(Locale.ROOT, "%.2f", histogram.getMaxValue() / 1000.0),
+                        result.latencies().size() == 1 && total > 0
+                                ? String.format(Locale.ROOT, "%.2f", result.statements() / (double) total) : "-");
+            }
+            if (result.latencies().size() > 1 && total > 0) {
+                out.printf(Locale.ROOT, "%-14s %-14s %9d %7s %8s %9s %9s %9s %9s %9s %10.2f%n",
+                        result.name(), "(all)", total, "", "", "", "", "", "", "", result.statements() / (double) total);
+            }
+            if (result.dropped() > 0) {
+                out.printf("%-14s dropped %d requests over the in-flight limit%n", result.name(), result.dropped());
+            }
+        }
+    }
+
+    private enum Endpoint {
+        LOGIN("login"),
+        USER_INFO("user-info"),
+        ADMIN_LIST("admin-list"),
+        ADMIN_GET("admin-get"),
+        ADMIN_CREATE("admin-create"),
+        ADMIN_UPDATE("admin-update"),
+        ADMIN_DELETE("admin-delete");
+
+        private final String key;
+
+        Endpoint(String key) {
+            this.key = key;
+        }
+
+        static Endpoint of(String key) {
+            for (Endpoint endpoint : values()) {
+                if (endpoint.key.equals(key)) {
+                    return endpoint;
+                }
+            }
+            throw new IllegalArgumentException("Unknown endpoint in loadtest.mix: " + key);
+        }
+    }
+
+    private record PhaseResult(String name, Duration duration, Map<Endpoint, Histogram> latencies,
+                               Map<Endpoint, LongAdder> errors, long dropped, long statements) {
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@code /api/admin/users/search} over a large PostgreSQL dataset. The search
+ * relies on pg_trgm and tsvector indexes, so unlike the other harnesses this one cannot
+ * run on H2: it starts an embedded PostgreSQL unless {@code spring.datasource.url} points
+ * at a real one. PostgreSQL refuses to start as root, so run it as a regular user.
+ * <p>
+ * Users are generated in the database with {@code generate_series}; names are drawn from
+ * a few thousand syllable combinations so that terms have realistic selectivity.
+ * <p>
+ * Run with {@code mvn -Ploadtest test-compile exec:exec
+ * -Dloadtest.main=org.example.loadtest.SearchLoadTest
+ * -Dloadtest.args="loadtest.users=1000000 loadtest.iterations=200"}.
+ */
+public final class SearchLoadTest {
+
+    private static final String[] FIRST_NAMES = {
+            "Ivan", "Petr", "Sergey", "Alexey", "Dmitry", "Andrey", "Mikhail", "Nikolay", "Pavel", "Roman",
+            "Oleg", "Denis", "Artem", "Maxim", "Kirill", "Yuri", "Egor", "Ilya", "Anton", "Viktor",
+            "Anna", "Maria", "Elena", "Olga", "Natalia", "Irina", "Tatiana", "Svetlana", "Ekaterina", "Yulia",
+            "Anastasia", "Daria", "Polina", "Ksenia", "Alina", "Vera", "Sofia", "Marina", "Galina", "Lyudmila"
+    };
+    private static final String[] LAST_NAME_STEMS = {
+            "Kuzn", "Smirn", "Popov", "Vasil", "Sokol", "Mikhayl", "Novik", "Fedor", "Morozov", "Volk",
+            "Alekseev", "Lebed", "Semen", "Egor", "Pavl", "Kozlov", "Stepan", "Nikolaev", "Orlov", "Andreev",
+            "Makarov", "Nikit", "Zakhar", "Zaits", "Solovy", "Borisov", "Yakovl", "Grigor", "Roman", "Vorob",
+            "Sergeev", "Kuzmin", "Frolov", "Aleksandr", "Dmitri", "Korolev", "Gusev", "Kiselev", "Ilyin", "Maksim"
+    };
+    private static final String[] LAST_NAME_MIDDLES = {
+            "", "ar", "ek", "in", "ol", "ush", "ov", "en", "ik", "ash", "ur", "ich", "al", "on", "et", "ib",
+            "ab", "yk", "ud", "em", "ist", "org", "ant", "ilk", "erd"
+    };
+    private static final String[] LAST_NAME_SUFFIXES = {"ov", "ev", "in", "sky", "enko", "ich", "uk", "ets"};
+
+    private static final Map<String, String> QUERIES = new LinkedHashMap<>();
+
+    static {
+        QUERIES.put("word prefix (2 chars)", "ku");
+        QUERIES.put("word prefix", "smirnar");
+        QUERIES.put("common first name", "anastasia");
+        QUERIES.put("first + last name", "ivan kuznarov");
+        QUERIES.put("substring", "olenko");
+        QUERIES.put("fuzzy (typo)", "smirnarof");
+        QUERIES.put("fuzzy (common typo)", "anastasya");
+        QUERIES.put("email", "user424242@mail.example");
+        QUERIES.put("email fragment", "42424");
+        QUERIES.put("no match", "qwxzv");
+    }
+
+    private SearchLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTestSupport.parseOptions(args);
+        int users = Integer.parseInt(options.getOrDefault("loadtest.users", "1000000"));
+        int iterations = Integer.parseInt(options.getOrDefault("loadtest.iterations", "200"));
+        int warmup = Integer.parseInt(options.getOrDefault("loadtest.warmup-iterations", "50"));
+
+        EmbeddedPostgres postgres = options.containsKey("spring.datasource.url") ? null : EmbeddedPostgres.start();
+        try {
+            Map<String, String> forced = new LinkedHashMap<>();
+            forced.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            forced.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            forced.put("spring.flyway.enabled", "true");
+            forced.put("spring.jpa.hibernate.ddl-auto", "validate");
+            if (postgres != null) {
+                forced.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+                forced.put("spring.datasource.username", "postgres");
+                forced.put("spring.datasource.password", "");
+            }
+
+            try (ConfigurableApplicationContext context = LoadTestSupport.startApplication("search", options, forced)) {
+                long seedStart = System.nanoTime();
+                seed(context, users);
+                System.out.printf("Seeded %d users in %d ms%n", users,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+                String base = LoadTestSupport.baseUrl(context);
+                HttpClient http = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+                String authorization = LoadTestSupport.login(http, base, "admin@mail.ru", "password");
+
+                System.out.printf("%-24s %-26s %8s %10s %10s %10s%n", "query", "term", "results", "p50 ms", "p99 ms", "max ms");
+                for (Map.Entry<String, String> query : QUERIES.entrySet()) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/api/admin/users/search?size=20&q="
+                                    + URLEncoder.encode(query.getValue(), StandardCharsets.UTF_8)))
+                            .header("Authorization", authorization)
+                            .GET()
+                            .build();
+                    Histogram histogram = new Histogram(TimeUnit.SECONDS.toMicros(30), 3);
+                    String body = "";
+                    for (int i = 0; i < warmup + iterations; i++) {
+                        long start = System.nanoTime();
+                        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException("Search for '" + query.getValue() + "' failed with status "
+                                    + response.statusCode() + ": " + response.body());
+                        }
+                        if (i >= warmup) {
+                            histogram.recordValue(micros);
+                        }
+                        body = response.body();
+                    }
+                    System.out.printf("%-24s %-26s %8d %10s %10s %10s%n", query.getKey(), query.getValue(),
+                            countResults(body), LoadTestSupport.millis(histogram, 50), LoadTestSupport.millis(histogram, 99),
+                            LoadTestSupport.millis(histogram, 100));
+                }
+            }
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context, int users) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        String passwordHash = context.getBean(PasswordEncoder.class).encode("password");
+        long firstId = jdbc.queryForObject("select coalesce(max(id), 0) + 1 from users", Long.class);
+        jdbc.update("insert into users (id, first_name, last_name, age, email, password, version) " +
+                        "select ? + g, " +
+                        "(?::text[])[1 + g % ?], " +
+                        "(?::text[])[1 + (g / 7) % ?] || (?::text[])[1 + (g / 311) % ?] || (?::text[])[1 + (g / 13) % ?], " +
+                        "18 + g % 60, 'user' || g || '@mail.example', ?, 0 " +
+                        "from generate_series(0, ? - 1) g",
+                firstId,
+                textArray(FIRST_NAMES), FIRST_NAMES.length,
+                textArray(LAST_NAME_STEMS), LAST_NAME_STEMS.length,
+                textArray(LAST_NAME_MIDDLES), LAST_NAME_MIDDLES.length,
+                textArray(LAST_NAME_SUFFIXES), LAST_NAME_SUFFIXES.length,
+                passwordHash, users);
+        jdbc.queryForObject("select setval('users_seq', (select max(id) + 1 from users), false)", Long.class);
+        jdbc.execute("vacuum analyze users");
+    }
+
+    private static String textArray(String[] values) {
+        return "{" + String.join(",", Arrays.stream(values).map(value -> '"' + value + '"').toList()) + "}";
+    }
+
+    private static int countResults(String body) {
+        int count = 0;
+        for (int index = body.indexOf("\"email\""); index >= 0; index = body.indexOf("\"email\"", index + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.loadtest;
+
+import org.example.repository.RoleRepository;
+import org.example.service.UserService;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares for repeated reads with the second-level
+ * and query cache off and on, and checks that reads after an update return the updated
+ * user either way. Statement counts come from Hibernate's statistics, so JDBC work done
+ * outside Hibernate (the audit writer) is not included.
+ * <p>
+ * Run with {@code mvn -Ploadtest test-compile exec:exec
+ * -Dloadtest.main=org.example.loadtest.SecondLevelCacheCheck}.
+ */
+public final class SecondLevelCacheCheck {
+
+    private static final int READS = 20;
+
+    private static int failures;
+
+    private SecondLevelCacheCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTestSupport.parseOptions(args);
+        Map<String, double[]> statements = new LinkedHashMap<>();
+        for (boolean cached : new boolean[]{false, true}) {
+            Map<String, String> forced = new LinkedHashMap<>();
+            forced.put("spring.jpa.properties.hibernate.cache.use_second_level_cache", String.valueOf(cached));
+            forced.put("spring.jpa.properties.hibernate.cache.use_query_cache", String.valueOf(cached));
+            forced.put("spring.jpa.properties.hibernate.generate_statistics", "true");
+            try (ConfigurableApplicationContext context = LoadTestSupport.startApplication(
+                    cached ? "l2-on" : "l2-off", options, forced)) {
+                run(context, cached, statements);
+            }
+        }
+
+        System.out.printf("%n%-34s %14s %14s%n", "statements per read", "cache off", "cache on");
+        statements.forEach((scenario, counts) ->
+                System.out.printf("%-34s %14.2f %14.2f%n", scenario, counts[0], counts[1]));
+        System.out.println(failures == 0 ? "All consistency checks passed" : failures + " check(s) failed");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    private static void run(ConfigurableApplicationContext context, boolean cached,
+                            Map<String, double[]> statements) throws Exception {
+        Statistics statistics = context.getBean(Statistics.class);
+        RoleRepository roleRepository = context.getBean(RoleRepository.class);
+        long userId = context.getBean(UserService.class).findUserByEmail("user@mail.ru").getId();
+        int column = cached ? 1 : 0;
+
+        String base = LoadTestSupport.baseUrl(context);
+        HttpClient http = HttpClient.newHttpClient();
+        String admin = LoadTestSupport.login(http, base, "admin@mail.ru", "password");
+        HttpRequest.Builder getUser = HttpRequest.newBuilder(URI.create(base + "/api/admin/users/" + userId)).GET();
+        HttpRequest.Builder getRoles = HttpRequest.newBuilder(URI.create(base + "/api/admin/roles")).GET();
+
+        record(statements, "GET /api/admin/users/{id}", column, statistics, () -> send(http, admin, getUser));
+        record(statements, "GET /api/admin/roles", column, statistics, () -> send(http, admin, getRoles));
+        record(statements, "RoleRepository.findByName", column, statistics, () -> roleRepository.findByName("ADMIN"));
+        record(statements, "RoleRepository.findByName (miss)", column, statistics,
+                () -> roleRepository.findByName("AUDITOR"));
+
+        String label = cached ? "cache on" : "cache off";
+        HttpResponse<String> updated = send(http, admin, HttpRequest.newBuilder(URI.create(base + "/api/admin/users/" + userId))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"lastName\":\"Cached\",\"roles\":[\"USER\",\"ADMIN\"]}")));
+        check(label + ": update accepted", updated.statusCode() == 200);
+        String body = send(http, admin, getUser).body();
+        check(label + ": read after update sees the new last name", body.contains("\"lastName\":\"Cached\""));
+        check(label + ": read after update sees the new roles", body.contains("\"ADMIN\""));
+        record(statements, "GET /api/admin/users/{id} (updated)", column, statistics, () -> send(http, admin, getUser));
+
+        send(http, admin, HttpRequest.newBuilder(URI.create(base + "/api/admin/users/" + userId))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"roles\":[\"USER\"]}")));
+        check(label + ": read after removing a role sees it removed", !send(http, admin, getUser).body().contains("\"ADMIN\""));
+    }
+
+    private static void record(Map<String, double[]> statements, String scenario, int column,
+                               Statistics statistics, Read read) throws Exception {
+        read.run();
+        long before = statistics.getPrepareStatementCount();
+        for (int i = 0; i < READS; i++) {
+            read.run();
+        }
+        statements.computeIfAbsent(scenario, key -> new double[2])[column] =
+                (double) (statistics.getPrepareStatementCount() - before) / READS;
+    }
+
+    private static HttpResponse<String> send(HttpClient http, String authorization, HttpRequest.Builder request)
+            throws Exception {
+        HttpResponse<String> response = http.send(request.copy().setHeader("Authorization", authorization).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(response.uri() + " failed with " + response.statusCode());
+        }
+        return response;
+    }
+
+    private static void check(String description, boolean passed) {
+        System.out.printf("%-4s %s%n", passed ? "PASS" : "FAIL", description);
+        if (!passed) {
+            failures++;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Read {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first request of the packaged application, measured from launching the JVM
+ * until {@code GET /login} returns 200, for each startup mode:
+ * <ul>
+ *     <li>{@code ddl-auto}: the executable jar with Flyway off and {@code ddl-auto=update},
+ *     as the application started before the migrations</li>
+ *     <li>{@code flyway}: the executable jar as configured</li>
+ *     <li>{@code lazy}: the executable jar with {@code spring.main.lazy-initialization}</li>
+ *     <li>{@code aot-cds}: the AOT-processed thin jar with the CDS archive</li>
+ * </ul>
+ * Every mode runs against the same, already migrated, database.
+ * <p>
+ * Build the jars and the archive with {@code mvn -Pfaststart package} first (see the
+ * profile for the training run), then run with {@code mvn -Ploadtest test-compile exec:exec
+ * -Dloadtest.main=org.example.loadtest.StartupTimeComparison}. Any {@code key=value}
+ * argument not starting with {@code loadtest.} is passed to the application; without a
+ * {@code spring.datasource.url} an embedded PostgreSQL is started.
+ */
+public final class StartupTimeComparison {
+
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(3);
+
+    private StartupTimeComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTestSupport.parseOptions(args);
+        int runs = Integer.parseInt(options.getOrDefault("loadtest.runs", "3"));
+        String[] modes = options.getOrDefault("loadtest.modes", "ddl-auto,flyway,lazy,aot-cds").split(",");
+        Path target = Path.of(options.getOrDefault("loadtest.target", "target"));
+        String artifact = options.getOrDefault("loadtest.artifact", "kataPP312-1.0-SNAPSHOT");
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        EmbeddedPostgres postgres = options.containsKey("spring.datasource.url") ? null : EmbeddedPostgres.start();
+        try {
+            Map<String, String> application = new LinkedHashMap<>();
+            if (postgres != null) {
+                application.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+                application.put("spring.datasource.username", "postgres");
+                application.put("spring.datasource.password", "");
+            }
+            options.forEach((key, value) -> {
+                if (!key.startsWith("loadtest.")) {
+                    application.put(key, value);
+                }
+            });
+            application.put("logging.level.root", "WARN");
+            application.put("logging.level.org.example.config.FirstRequestTimer", "INFO");
+
+            // Migrates and seeds the database, so that no measured run pays for it
+            System.out.println("Preparing the database...");
+            measure(java, "flyway", target, artifact, application, target.resolve("startup-prepare.log"));
+
+            Map<String, long[]> results = new LinkedHashMap<>();
+            for (int run = 0; run < runs; run++) {
+                for (String mode : modes) {
+                    String name = mode.trim();
+                    long millis = measure(java, name, target, artifact, application,
+                            target.resolve("startup-" + name + "-" + run + ".log"));
+                    System.out.printf("%-10s run %d: %6d ms%n", name, run + 1, millis);
+                    results.computeIfAbsent(name, key -> new long[runs])[run] = millis;
+                }
+            }
+
+            System.out.printf("%n%-10s %10s %10s %10s%n", "mode", "min ms", "median ms", "max ms");
+            results.forEach((mode, millis) -> {
+                long[] sorted = millis.clone();
+                Arrays.sort(sorted);
+                System.out.printf("%-10s %10d %10d %10d%n", mode, sorted[0], sorted[sorted.length / 2],
+                        sorted[sorted.length - 1]);
+            });
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    private static long measure(String java, String mode, Path target, String artifact,
+                                Map<String, String> application, Path log) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(List.of(java));
+        Map<String, String> arguments = new LinkedHashMap<>(application);
+        arguments.put("server.port", String.valueOf(port));
+        switch (mode) {
+            case "ddl-auto" -> {
+                arguments.put("spring.flyway.enabled", "false");
+                arguments.put("spring.jpa.hibernate.ddl-auto", "update");
+                command.addAll(List.of("-jar", jar(target, artifact, "-exec.jar")));
+            }
+            case "flyway" -> command.addAll(List.of("-jar", jar(target, artifact, "-exec.jar")));
+            case "lazy" -> {
+                arguments.put("spring.main.lazy-initialization", "true");
+                command.addAll(List.of("-jar", jar(target, artifact, "-exec.jar")));
+            }
+            case "aot-cds" -> {
+                Path archive = target.resolve("app.jsa");
+                if (!Files.exists(archive)) {
+                    throw new IllegalStateException(archive + " not found, run mvn -Pfaststart package first");
+                }
+                command.addAll(List.of("-XX:SharedArchiveFile=" + archive, "-Xlog:cds=error",
+                        "-Dspring.aot.enabled=true", "-jar", jar(target, artifact, ".jar")));
+            }
+            default -> throw new IllegalArgumentException("Unknown mode " + mode);
+        }
+        arguments.forEach((key, value) -> command.add("--" + key + "=" + value));
+
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/login")).GET().build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            while (System.nanoTime() - start < START_TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode + " exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (ConnectException e) {
+                    // not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException(mode + " did not serve a request within " + START_TIMEOUT + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static String jar(Path target, String artifact, String suffix) {
+        Path jar = target.resolve(artifact + suffix);
+        if (!Files.exists(jar)) {
+            throw new IllegalStateException(jar + " not found, run mvn -Pfaststart package first");
+        }
+        return jar.toString();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
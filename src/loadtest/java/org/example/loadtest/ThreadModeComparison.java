@@ -0,0 +1,131 @@
+package org.example.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares platform-thread and virtual-thread request handling under a closed-loop load
+ * of many concurrent clients. Each mode starts the application in-process, logs in as
+ * the seeded admin, and has every client alternate between the admin user list and
+ * {@code /api/user/info} for the configured duration.
+ * <p>
+ * Run with {@code mvn -Ploadtest test-compile exec:exec -Dloadtest.java=/path/to/jdk21/bin/java
+ * -Dloadtest.args="loadtest.clients=1000 loadtest.duration=PT60S"}. Any other
+ * {@code key=value} argument is passed to the application, e.g. a
+ * {@code spring.datasource.url} pointing at a real PostgreSQL instance; the default is
+ * an in-memory H2 database in PostgreSQL mode, which has far less I/O wait than production.
+ */
+public final class ThreadModeComparison {
+
+    private static final String ADMIN_EMAIL = "admin@mail.ru";
+    private static final String ADMIN_PASSWORD = "password";
+
+    private ThreadModeComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTestSupport.parseOptions(args);
+        int clients = Integer.parseInt(options.getOrDefault("loadtest.clients", "1000"));
+        Duration warmup = Duration.parse(options.getOrDefault("loadtest.warmup", "PT10S"));
+        Duration duration = Duration.parse(options.getOrDefault("loadtest.duration", "PT30S"));
+        String[] modes = options.getOrDefault("loadtest.modes", "platform,virtual").split(",");
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : modes) {
+            results.add(run(mode.trim(), clients, warmup, duration, options));
+        }
+
+        System.out.printf("%n%-10s %8s %10s %8s %10s %10s %10s %10s%n",
+                "mode", "clients", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (Result result : results) {
+            Histogram latency = result.latency();
+            System.out.printf("%-10s %8d %10d %8d %10.1f %10.2f %10.2f %10.2f%n",
+                    result.mode(), clients, latency.getTotalCount(), result.errors(),
+                    latency.getTotalCount() / (double) duration.toSeconds(),
+                    latency.getValueAtPercentile(50) / 1000.0,
+                    latency.getValueAtPercentile(99) / 1000.0,
+                    latency.getMaxValue() / 1000.0);
+        }
+    }
+
+    private static Result run(String mode, int clients, Duration warmup, Duration duration,
+                              Map<String, String> options) throws Exception {
+        System.out.printf("Starting %s mode...%n", mode);
+        try (ConfigurableApplicationContext context = LoadTestSupport.startApplication("loadtest-" + mode, options,
+                Map.of("app.threads.virtual", String.valueOf("virtual".equals(mode)),
+                        "app.security.password.bcrypt-strength", "4",
+                        "server.tomcat.accept-count", String.valueOf(clients)))) {
+            String base = LoadTestSupport.baseUrl(context);
+
+            HttpClient http = HttpClient.newBuilder()
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            String authorization = LoadTestSupport.login(http, base, ADMIN_EMAIL, ADMIN_PASSWORD);
+
+            List<HttpRequest> requests = List.of(
+                    HttpRequest.newBuilder(URI.create(base + "/api/admin/users?size=20"))
+                            .header("Authorization", authorization).GET().build(),
+                    HttpRequest.newBuilder(URI.create(base + "/api/user/info"))
+                            .header("Authorization", authorization).GET().build());
+
+            Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+            LongAdder errors = new LongAdder();
+            long start = System.nanoTime();
+            long measureFrom = start + warmup.toNanos();
+            long end = measureFrom + duration.toNanos();
+
+            ExecutorService pool = Executors.newFixedThreadPool(clients);
+            CountDownLatch done = new CountDownLatch(clients);
+            for (int i = 0; i < clients; i++) {
+                int offset = i;
+                pool.execute(() -> {
+                    try {
+                        for (int n = offset; System.nanoTime() < end; n++) {
+                            long sent = System.nanoTime();
+                            int status;
+                            try {
+                                status = http.send(requests.get(n % requests.size()),
+                                        HttpResponse.BodyHandlers.discarding()).statusCode();
+                            } catch (Exception e) {
+                                status = -1;
+                            }
+                            long received = System.nanoTime();
+                            if (sent >= measureFrom) {
+                                if (status / 100 == 2) {
+                                    latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(received - sent),
+                                            latency.getHighestTrackableValue()));
+                                } else {
+                                    errors.increment();
+                                }
+                            }
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+            pool.shutdown();
+            return new Result(mode, latency, errors.sum());
+        }
+    }
+
+    private record Result(String mode, Histogram latency, long errors) {
+    }
+}
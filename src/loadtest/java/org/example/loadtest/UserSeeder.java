@@ -0,0 +1,71 @@
+package org.example.loadtest;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.model.Role;
+import org.example.model.User;
+import org.example.service.RoleService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Seeds load-test users straight through the persistence context in large batched
+ * transactions. Every user shares one precomputed password hash, so seeding costs a
+ * single BCrypt round instead of one per user as {@code createUser} would.
+ */
+final class UserSeeder {
+
+    static final String PASSWORD = "password";
+
+    private static final String[] LAST_NAMES = {"Ivanov", "Petrov", "Sidorov", "Smirnov", "Kuznetsov",
+            "Popov", "Vasiliev", "Sokolov", "Mikhailov", "Novikov"};
+    private static final int CHUNK_SIZE = 1000;
+
+    private UserSeeder() {
+    }
+
+    static String email(int index) {
+        return "load" + index + "@mail.ru";
+    }
+
+    /**
+     * Returns the ids of the seeded users in insertion order.
+     */
+    static List<Long> seed(ConfigurableApplicationContext context, int count) {
+        EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        TransactionTemplate transactionTemplate =
+                new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        Long userRoleId = context.getBean(RoleService.class).findRoleByName("USER").getId();
+
+        List<Long> ids = new ArrayList<>(count);
+        for (int from = 0; from < count; from += CHUNK_SIZE) {
+            int start = from;
+            int end = Math.min(count, from + CHUNK_SIZE);
+            transactionTemplate.executeWithoutResult(status -> {
+                EntityManager entityManager =
+                        EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+                Role userRole = entityManager.getReference(Role.class, userRoleId);
+                List<User> chunk = new ArrayList<>(end - start);
+                for (int i = start; i < end; i++) {
+                    User user = new User("Load" + i, LAST_NAMES[i % LAST_NAMES.length], 18 + i % 60,
+                            email(i), passwordHash);
+                    user.setRoles(Set.of(userRole));
+                    entityManager.persist(user);
+                    chunk.add(user);
+                }
+                entityManager.flush();
+                chunk.forEach(user -> ids.add(user.getId()));
+                entityManager.clear();
+            });
+        }
+        return ids;
+    }
+}
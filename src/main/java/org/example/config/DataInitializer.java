@@ -1,52 +1,45 @@
 package org.example.config;
 
+import org.example.dto.CreateUserRequest;
 import org.example.model.Role;
 import org.example.repository.RoleRepository;
+import org.example.repository.UserRepository;
+import org.example.service.RoleService;
 import org.example.service.UserService;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 @Configuration
 public class DataInitializer {
 
     @Bean
     public ApplicationRunner initData(RoleRepository roleRepository,
-                                      UserService userService) {
-        return args -> {
+                                      UserRepository userRepository,
+                                      RoleService roleService,
+                                      UserService userService,
+                                      PlatformTransactionManager transactionManager) {
+        // One read-write transaction, so the existence checks run on the primary and not on a replica
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return args -> transaction.executeWithoutResult(status -> {
+            // A seeded database costs one query per start; roles are only looked at when it is empty
+            if (userRepository.existsAny()) {
+                return;
+            }
             if (roleRepository.count() == 0) {
                 Role adminRole = new Role("ADMIN");
                 Role userRole = new Role("USER");
-                roleRepository.save(adminRole);
-                roleRepository.save(userRole);
-            }
-
-            if (userService.findAllUsers().isEmpty()) {
-                Map<String, Object> adminData = new HashMap<>();
-                adminData.put("firstName", "Admin");
-                adminData.put("lastName", "Adminov");
-                adminData.put("age", 30);
-                adminData.put("email", "admin@mail.ru");
-                adminData.put("password", "password");
-                adminData.put("roles", List.of("ADMIN", "USER"));
-
-                userService.createUserFromMap(adminData);
-
-                Map<String, Object> userData = new HashMap<>();
-                userData.put("firstName", "User");
-                userData.put("lastName", "Userov");
-                userData.put("age", 25);
-                userData.put("email", "user@mail.ru");
-                userData.put("password", "password");
-                userData.put("roles", List.of("USER"));
-
-                userService.createUserFromMap(userData);
+                roleService.saveRole(adminRole);
+                roleService.saveRole(userRole);
             }
-        };
+            userService.createUser(new CreateUserRequest("Admin", "Adminov", 30,
+                    "admin@mail.ru", "password", Set.of("ADMIN", "USER")));
+            userService.createUser(new CreateUserRequest("User", "Userov", 25,
+                    "user@mail.ru", "password", Set.of("USER")));
+        });
     }
-}
\ No newline at end of file
+}
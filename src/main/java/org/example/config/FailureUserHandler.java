@@ -0,0 +1,49 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.exception.LoginThrottledException;
+import org.example.exception.PasswordHashingOverloadedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Component
+public class FailureUserHandler implements AuthenticationFailureHandler {
+
+    private final Counter loginFailure;
+    private final Counter loginOverloaded;
+    private final Counter loginThrottled;
+
+    public FailureUserHandler(MeterRegistry meterRegistry) {
+        this.loginFailure = Counter.builder("app.login").tag("outcome", "failure").register(meterRegistry);
+        this.loginOverloaded = Counter.builder("app.login").tag("outcome", "overloaded").register(meterRegistry);
+        this.loginThrottled = Counter.builder("app.login").tag("outcome", "throttled").register(meterRegistry);
+    }
+
+    @Override
+    public void onAuthenticationFailure(HttpServletRequest request,
+                                        HttpServletResponse response,
+                                        AuthenticationException exception) throws IOException {
+        if (exception.getCause() instanceof PasswordHashingOverloadedException) {
+            loginOverloaded.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), exception.getMessage());
+            return;
+        }
+        if (exception.getCause() instanceof LoginThrottledException throttled) {
+            loginThrottled.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(throttled.getRetryAfterSeconds()));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), exception.getMessage());
+            return;
+        }
+        loginFailure.increment();
+        response.sendRedirect("/login?error=true");
+    }
+}
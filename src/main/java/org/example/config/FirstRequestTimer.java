@@ -0,0 +1,57 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Time from JVM start until the first request has been served, logged once and exposed
+ * as {@code app.startup.first-request}. Unlike {@code application.ready.time} it includes
+ * whatever lazy initialization and class loading the first request still has to do.
+ */
+public class FirstRequestTimer implements Filter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(FirstRequestTimer.class);
+
+    private final AtomicBoolean recorded = new AtomicBoolean();
+    private volatile long firstRequestMillis = -1;
+
+    public FirstRequestTimer(MeterRegistry meterRegistry) {
+        TimeGauge.builder("app.startup.first-request", this, TimeUnit.MILLISECONDS,
+                        timer -> timer.firstRequestMillis < 0 ? Double.NaN : timer.firstRequestMillis)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (firstRequestMillis < 0 && recorded.compareAndSet(false, true)) {
+                firstRequestMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+                log.info("First request ({} {}) served {} ms after JVM start",
+                        ((HttpServletRequest) request).getMethod(), ((HttpServletRequest) request).getRequestURI(),
+                        firstRequestMillis);
+            }
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.exception.LoginThrottledException;
+import org.example.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts failed logins per email and per client address over a sliding window and
+ * rejects further attempts once a limit is reached, before any user lookup or password
+ * hashing happens. Counters are ring buckets updated with CAS, so concurrent attempts
+ * never block each other; idle keys expire after one window and the key count is capped.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final Cache<String, Window> failures;
+    private final long bucketMillis;
+    private final int buckets;
+    private final int maxFailuresPerEmail;
+    private final int maxFailuresPerAddress;
+    private final Counter throttledByEmail;
+    private final Counter throttledByAddress;
+
+    public LoginThrottle(@Value("${app.security.login-throttle.window:PT5M}") Duration window,
+                         @Value("${app.security.login-throttle.buckets:10}") int buckets,
+                         @Value("${app.security.login-throttle.max-failures-per-email:5}") int maxFailuresPerEmail,
+                         @Value("${app.security.login-throttle.max-failures-per-address:100}") int maxFailuresPerAddress,
+                         @Value("${app.security.login-throttle.max-keys:100000}") long maxKeys,
+                         MeterRegistry meterRegistry) {
+        this.buckets = buckets;
+        this.bucketMillis = Math.max(1, window.toMillis() / buckets);
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.maxFailuresPerAddress = maxFailuresPerAddress;
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(window)
+                .build();
+
+        this.throttledByEmail = Counter.builder("app.login.throttled").tag("key", "email").register(meterRegistry);
+        this.throttledByAddress = Counter.builder("app.login.throttled").tag("key", "address").register(meterRegistry);
+        Gauge.builder("app.login.throttle.keys", failures, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    public void check(String email, String address) {
+        long epoch = System.currentTimeMillis() / bucketMillis;
+        if (email != null && exceeded(emailKey(email), maxFailuresPerEmail, epoch)) {
+            throttledByEmail.increment();
+            throw new LoginThrottledException("Too many failed logins for this account", retryAfterSeconds());
+        }
+        if (address != null && exceeded(addressKey(address), maxFailuresPerAddress, epoch)) {
+            throttledByAddress.increment();
+            throw new LoginThrottledException("Too many failed logins from this address", retryAfterSeconds());
+        }
+    }
+
+    public void recordFailure(String email, String address) {
+        long epoch = System.currentTimeMillis() / bucketMillis;
+        if (email != null) {
+            failures.get(emailKey(email), key -> new Window(buckets)).increment(epoch);
+        }
+        if (address != null) {
+            failures.get(addressKey(address), key -> new Window(buckets)).increment(epoch);
+        }
+    }
+
+    public void recordSuccess(String email) {
+        if (email != null) {
+            failures.invalidate(emailKey(email));
+        }
+    }
+
+    private boolean exceeded(String key, int limit, long epoch) {
+        Window window = failures.getIfPresent(key);
+        return window != null && window.sum(epoch) >= limit;
+    }
+
+    private long retryAfterSeconds() {
+        return Math.max(1, (bucketMillis + 999) / 1000);
+    }
+
+    private static String emailKey(String email) {
+        return "e:" + User.normalizeEmail(email);
+    }
+
+    private static String addressKey(String address) {
+        return "a:" + address;
+    }
+
+    /**
+     * Each slot packs the bucket epoch into the high bits and the failure count into the
+     * low {@value #COUNT_BITS} bits, so a stale slot is reset and incremented in one CAS.
+     */
+    static final class Window {
+
+        private final AtomicLongArray slots;
+
+        Window(int buckets) {
+            this.slots = new AtomicLongArray(buckets);
+        }
+
+        void increment(long epoch) {
+            int index = (int) (epoch % slots.length());
+            while (true) {
+                long current = slots.get(index);
+                long next;
+                if (current >>> COUNT_BITS == epoch) {
+                    if ((current & COUNT_MASK) == COUNT_MASK) {
+                        return;
+                    }
+                    next = current + 1;
+                } else {
+                    next = (epoch << COUNT_BITS) | 1;
+                }
+                if (slots.compareAndSet(index, current, next)) {
+                    return;
+                }
+            }
+        }
+
+        long sum(long epoch) {
+            long oldest = epoch - slots.length() + 1;
+            long total = 0;
+            for (int i = 0; i < slots.length(); i++) {
+                long slot = slots.get(i);
+                long slotEpoch = slot >>> COUNT_BITS;
+                if (slotEpoch >= oldest && slotEpoch <= epoch) {
+                    total += slot & COUNT_MASK;
+                }
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times service, repository and controller invocations. Meters are resolved once per
+ * component and method and cached, so a call costs two map lookups and a clock read,
+ * with no tag or meter allocation on the hot path.
+ */
+public class MethodMetricsInterceptor implements MethodInterceptor {
+
+    static final String SERVICE_METRIC = "app.service";
+    static final String REPOSITORY_METRIC = "app.repository";
+    static final String CONTROLLER_METRIC = "app.controller";
+
+    private static final Logger log = LoggerFactory.getLogger(MethodMetricsInterceptor.class);
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final long slowRepositoryCallNanos;
+    private final Map<Class<?>, Map<Method, MethodTimers>> timers = new ConcurrentHashMap<>();
+
+    public MethodMetricsInterceptor(ObjectProvider<MeterRegistry> meterRegistry, long slowRepositoryCallNanos) {
+        this.meterRegistry = meterRegistry;
+        this.slowRepositoryCallNanos = slowRepositoryCallNanos;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MethodTimers methodTimers = timersFor(invocation.getThis().getClass(), invocation.getMethod());
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            long elapsed = System.nanoTime() - start;
+            methodTimers.success.record(elapsed, TimeUnit.NANOSECONDS);
+            if (methodTimers.repository && slowRepositoryCallNanos > 0 && elapsed > slowRepositoryCallNanos) {
+                log.warn("Slow repository call {}.{} took {} ms", methodTimers.component, methodTimers.method,
+                        TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+            return result;
+        } catch (Throwable e) {
+            methodTimers.error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    /**
+     * Registers the meters for a method ahead of the first call, so they are scraped with
+     * a zero count instead of appearing only once the method has been used.
+     */
+    void preRegister(Class<?> componentType, String methodName) {
+        register(metricName(componentType), componentName(componentType), methodName);
+    }
+
+    private MethodTimers timersFor(Class<?> targetClass, Method method) {
+        Map<Method, MethodTimers> byMethod = timers.get(targetClass);
+        if (byMethod == null) {
+            byMethod = timers.computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>());
+        }
+        MethodTimers methodTimers = byMethod.get(method);
+        if (methodTimers == null) {
+            methodTimers = byMethod.computeIfAbsent(method, key ->
+                    register(metricName(targetClass), componentName(targetClass), key.getName()));
+        }
+        return methodTimers;
+    }
+
+    private MethodTimers register(String metric, String component, String method) {
+        MeterRegistry registry = meterRegistry.getObject();
+        Timer success = Timer.builder(metric)
+                .tag("component", component).tag("method", method).tag("outcome", "success")
+                .register(registry);
+        Timer error = Timer.builder(metric)
+                .tag("component", component).tag("method", method).tag("outcome", "error")
+                .register(registry);
+        return new MethodTimers(component, method, REPOSITORY_METRIC.equals(metric), success, error);
+    }
+
+    static String metricName(Class<?> componentType) {
+        if (Repository.class.isAssignableFrom(componentType)) {
+            return REPOSITORY_METRIC;
+        }
+        return componentType.getSimpleName().endsWith("Controller") ? CONTROLLER_METRIC : SERVICE_METRIC;
+    }
+
+    static String componentName(Class<?> componentType) {
+        Class<?> userClass = ClassUtils.getUserClass(componentType);
+        for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(userClass)) {
+            if (candidate.getPackageName().startsWith("org.example")) {
+                return candidate.getSimpleName();
+            }
+        }
+        return userClass.getSimpleName();
+    }
+
+    private record MethodTimers(String component, String method, boolean repository, Timer success, Timer error) {
+    }
+}
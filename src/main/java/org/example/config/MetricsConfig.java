@@ -0,0 +1,125 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.service.RoleService;
+import org.example.service.UserService;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class MetricsConfig {
+
+    private static final List<Class<?>> SERVICE_TYPES = List.of(UserService.class, RoleService.class);
+    private static final String APPLICATION_PACKAGE = "org.example";
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static MethodMetricsInterceptor methodMetricsInterceptor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.metrics.slow-repository-call:PT0.2S}") Duration slowRepositoryCall) {
+        return new MethodMetricsInterceptor(meterRegistry, slowRepositoryCall.toNanos());
+    }
+
+    /**
+     * Applied by the same infrastructure auto-proxy creator as the transaction advisor,
+     * ordered first so that the timing includes commit.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static DefaultPointcutAdvisor methodMetricsAdvisor(MethodMetricsInterceptor methodMetricsInterceptor) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new InstrumentedMethodPointcut(),
+                methodMetricsInterceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Bean
+    public SmartInitializingSingleton methodMetricsPreRegistration(MethodMetricsInterceptor methodMetricsInterceptor,
+                                                                   List<Repository<?, ?>> repositories) {
+        return () -> {
+            for (Class<?> serviceType : SERVICE_TYPES) {
+                for (Method method : serviceType.getDeclaredMethods()) {
+                    methodMetricsInterceptor.preRegister(serviceType, method.getName());
+                }
+            }
+            for (Repository<?, ?> repository : repositories) {
+                for (Class<?> repositoryType : repository.getClass().getInterfaces()) {
+                    if (repositoryType.getPackageName().startsWith(APPLICATION_PACKAGE)) {
+                        for (Method method : repositoryType.getDeclaredMethods()) {
+                            methodMetricsInterceptor.preRegister(repositoryType, method.getName());
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    private static boolean isApplicationRepository(Class<?> type) {
+        if (!Repository.class.isAssignableFrom(type)) {
+            return false;
+        }
+        for (Class<?> candidate : type.getInterfaces()) {
+            if (candidate.getPackageName().startsWith(APPLICATION_PACKAGE)) {
+                return true;
+            }
+        }
+        return type.getPackageName().startsWith(APPLICATION_PACKAGE);
+    }
+
+    private static boolean isService(Class<?> type) {
+        for (Class<?> serviceType : SERVICE_TYPES) {
+            if (serviceType.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class InstrumentedMethodPointcut extends StaticMethodMatcherPointcut {
+
+        @Override
+        public ClassFilter getClassFilter() {
+            return type -> isService(type) || isApplicationRepository(type)
+                    || (type.getPackageName().startsWith(APPLICATION_PACKAGE)
+                    && AnnotatedElementUtils.hasAnnotation(type, RestController.class));
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            if (ReflectionUtils.isObjectMethod(method)) {
+                return false;
+            }
+            if (isService(targetClass)) {
+                for (Class<?> serviceType : SERVICE_TYPES) {
+                    if (serviceType.isAssignableFrom(targetClass)
+                            && ReflectionUtils.findMethod(serviceType, method.getName(), method.getParameterTypes()) != null) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (isApplicationRepository(targetClass)) {
+                return true;
+            }
+            return AnnotatedElementUtils.hasAnnotation(method, RequestMapping.class);
+        }
+    }
+}
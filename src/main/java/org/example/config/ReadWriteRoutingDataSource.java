@@ -0,0 +1,220 @@
+package org.example.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to the replica pools in turn and everything
+ * else to the primary. The decision is made when the connection is first requested, so the
+ * data source must sit behind a {@code LazyConnectionDataSourceProxy}; otherwise the
+ * transaction manager asks for a connection before the read-only flag is bound.
+ * <p>
+ * A replica that fails to hand out a connection is taken out of rotation until the next
+ * health check finds it valid again. Once a read-write transaction of an authenticated
+ * user commits, that user's read-only transactions stay on the primary for
+ * {@code stickyWindow}, so replication lag cannot hide their own change from them.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private final HikariDataSource primary;
+    private volatile DataSource primaryConnections;
+    private final List<Replica> replicas;
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter primaryReads;
+    private final Counter stickyReads;
+    private final Counter writes;
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                      Duration stickyWindow, int maxStickyUsers, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.primaryConnections = primary;
+        this.replicas = replicas.stream().map(pool -> new Replica(pool, meterRegistry)).toList();
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickyWindow)
+                .maximumSize(maxStickyUsers)
+                .build();
+        this.primaryReads = Counter.builder("app.db.routed").tag("target", "primary").tag("reason", "no-replica")
+                .register(meterRegistry);
+        this.stickyReads = Counter.builder("app.db.routed").tag("target", "primary").tag("reason", "read-your-writes")
+                .register(meterRegistry);
+        this.writes = Counter.builder("app.db.routed").tag("target", "primary").tag("reason", "read-write")
+                .register(meterRegistry);
+        Gauge.builder("app.db.replicas.healthy", this.replicas,
+                        list -> list.stream().filter(replica -> replica.healthy).count())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            rememberWriterOnCommit();
+            return primaryConnections.getConnection();
+        }
+        if (isRecentWriter()) {
+            stickyReads.increment();
+            return primaryConnections.getConnection();
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.connections.getConnection();
+                replica.routed.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+        primaryReads.increment();
+        return primaryConnections.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // per-call credentials only make sense for the primary's configuration
+        writes.increment();
+        return primaryConnections.getConnection(username, password);
+    }
+
+    /**
+     * Puts each pool behind a {@link ConnectionLimitingDataSource} of its own, with as many
+     * permits as the pool has connections unless {@code maxConcurrency} is set, so callers
+     * queue for the pool they are routed to. The health check bypasses the limits.
+     */
+    public void limitConnections(int maxConcurrency, Duration maxWait) {
+        primaryConnections = limited(primary, maxConcurrency, maxWait);
+        replicas.forEach(replica -> replica.connections = limited(replica.pool, maxConcurrency, maxWait));
+    }
+
+    public Map<String, ConnectionLimitingDataSource> getConnectionLimiters() {
+        Map<String, ConnectionLimitingDataSource> limiters = new LinkedHashMap<>();
+        if (primaryConnections instanceof ConnectionLimitingDataSource limiter) {
+            limiters.put(primary.getPoolName(), limiter);
+        }
+        for (Replica replica : replicas) {
+            if (replica.connections instanceof ConnectionLimitingDataSource limiter) {
+                limiters.put(replica.pool.getPoolName(), limiter);
+            }
+        }
+        return limiters;
+    }
+
+    private static ConnectionLimitingDataSource limited(HikariDataSource pool, int maxConcurrency, Duration maxWait) {
+        return new ConnectionLimitingDataSource(pool, maxConcurrency > 0 ? maxConcurrency : pool.getMaximumPoolSize(),
+                maxWait);
+    }
+
+    /**
+     * Puts replicas that answer a validity check back in rotation and takes out those
+     * that do not.
+     */
+    public void checkReplicas(Duration timeout) {
+        int seconds = (int) Math.max(1, timeout.toSeconds());
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection()) {
+                if (connection.isValid(seconds)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(new SQLException("Connection is not valid"));
+                }
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+        primary.close();
+    }
+
+    private void rememberWriterOnCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String user = currentUser();
+        if (user == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+        });
+    }
+
+    private boolean isRecentWriter() {
+        String user = currentUser();
+        return user != null && recentWriters.getIfPresent(user) != null;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static final class Replica {
+
+        final HikariDataSource pool;
+        final Counter routed;
+        volatile DataSource connections;
+        volatile boolean healthy = true;
+
+        Replica(HikariDataSource pool, MeterRegistry meterRegistry) {
+            this.pool = pool;
+            this.connections = pool;
+            this.routed = Counter.builder("app.db.routed").tag("target", pool.getPoolName()).tag("reason", "read-only")
+                    .register(meterRegistry);
+        }
+
+        void markDown(SQLException cause) {
+            if (healthy) {
+                healthy = false;
+                log.warn("Replica {} removed from rotation: {}", pool.getPoolName(), cause.getMessage());
+            }
+        }
+
+        void markUp() {
+            if (!healthy) {
+                healthy = true;
+                log.info("Replica {} back in rotation", pool.getPoolName());
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured pool with a primary pool plus one read-only pool per
+ * {@code app.datasource.replica-urls} entry, routed by {@link ReadWriteRoutingDataSource}.
+ * All pools take the {@code spring.datasource.hikari.*} settings; replicas share the
+ * primary's driver and, unless overridden, its credentials. The pools are not beans of
+ * their own, so the context still holds a single {@code DataSource}.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replica-urls:}'.isBlank()")
+public class ReplicaRoutingConfig {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    private final Duration healthCheckTimeout;
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    public ReplicaRoutingConfig(@Value("${app.datasource.replica-health-timeout:PT2S}") Duration healthCheckTimeout) {
+        this.healthCheckTimeout = healthCheckTimeout;
+    }
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+                                 @Value("${app.datasource.replica-urls}") List<String> replicaUrls,
+                                 @Value("${app.datasource.replica-username:${spring.datasource.username:}}") String replicaUsername,
+                                 @Value("${app.datasource.replica-password:${spring.datasource.password:}}") String replicaPassword,
+                                 @Value("${app.datasource.replica-pool-size:10}") int replicaPoolSize,
+                                 @Value("${app.datasource.replica-connection-timeout:PT1S}") Duration replicaConnectionTimeout,
+                                 @Value("${app.datasource.read-your-writes-window:PT5S}") Duration readYourWritesWindow,
+                                 @Value("${app.datasource.read-your-writes-max-users:100000}") int readYourWritesMaxUsers) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(HIKARI_PREFIX, Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+        primary.setMetricRegistry(meterRegistry);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(replicaUsername)
+                    .password(replicaPassword)
+                    .build();
+            binder.bind(HIKARI_PREFIX, Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setReadOnly(true);
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setConnectionTimeout(replicaConnectionTimeout.toMillis());
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricRegistry(meterRegistry);
+            replicas.add(replica);
+        }
+
+        routingDataSource = new ReadWriteRoutingDataSource(primary, replicas, readYourWritesWindow,
+                readYourWritesMaxUsers, meterRegistry);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica-health-interval:PT5S}",
+            initialDelayString = "${app.datasource.replica-health-interval:PT5S}")
+    public void checkReplicas() {
+        if (routingDataSource != null) {
+            routingDataSource.checkReplicas(healthCheckTimeout);
+        }
+    }
+
+    @PreDestroy
+    public void closePools() {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+    }
+}
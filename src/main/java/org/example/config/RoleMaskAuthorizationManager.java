@@ -0,0 +1,42 @@
+package org.example.config;
+
+import org.example.model.RoleRegistry;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Grants access when the authentication holds any of the given roles. The required roles
+ * are resolved to a mask once, at configuration time, and the decisions are shared
+ * instances, so a check allocates nothing.
+ */
+public final class RoleMaskAuthorizationManager<T> implements AuthorizationManager<T> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final long required;
+
+    private RoleMaskAuthorizationManager(long required) {
+        this.required = required;
+    }
+
+    public static <T> RoleMaskAuthorizationManager<T> hasRole(String role) {
+        return new RoleMaskAuthorizationManager<>(RoleRegistry.mask(role));
+    }
+
+    public static <T> RoleMaskAuthorizationManager<T> hasAnyRole(String... roles) {
+        return new RoleMaskAuthorizationManager<>(RoleRegistry.mask(List.of(roles)));
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, T object) {
+        Authentication current = authentication.get();
+        boolean granted = current != null && current.isAuthenticated()
+                && (RoleRegistry.mask(current) & required) != 0;
+        return granted ? GRANTED : DENIED;
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ObjectUtils;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level and query cache on Caffeine through JCache. Every region is
+ * created here with its own size and time-to-live, and Hibernate is told to fail rather
+ * than silently create an unbounded cache for a region that is missing. The cache is
+ * local to the instance: writes made through it update the cache on commit, writes made
+ * elsewhere become visible once the entry expires.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final String USERS = "users";
+    private static final String USER_ROLES = "users.roles";
+    private static final String ROLES = "roles";
+    private static final String QUERY_RESULTS = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private static final List<String> REGIONS = List.of(USERS, USER_ROLES, ROLES, QUERY_RESULTS);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${app.cache.users.max-size:10000}") long usersMaxSize,
+                                              @Value("${app.cache.users.ttl:PT10M}") Duration usersTtl,
+                                              @Value("${app.cache.user-roles.max-size:10000}") long userRolesMaxSize,
+                                              @Value("${app.cache.user-roles.ttl:PT10M}") Duration userRolesTtl,
+                                              @Value("${app.cache.roles.max-size:1000}") long rolesMaxSize,
+                                              @Value("${app.cache.roles.ttl:PT1H}") Duration rolesTtl,
+                                              @Value("${app.cache.queries.max-size:1000}") long queriesMaxSize,
+                                              @Value("${app.cache.queries.ttl:PT10M}") Duration queriesTtl) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // The default manager is shared by the whole JVM; a second application context (a
+        // test suite, a devtools restart) would find its regions already created
+        URI uri = URI.create(getClass().getName() + "@" + ObjectUtils.getIdentityHexString(this));
+        CacheManager cacheManager = provider.getCacheManager(uri, getClass().getClassLoader());
+        cacheManager.createCache(USERS, region(usersMaxSize, usersTtl));
+        cacheManager.createCache(USER_ROLES, region(userRolesMaxSize, userRolesTtl));
+        cacheManager.createCache(ROLES, region(rolesMaxSize, rolesTtl));
+        cacheManager.createCache(QUERY_RESULTS, region(queriesMaxSize, queriesTtl));
+        // One entry per table; expiring one would make cached query results look current
+        cacheManager.createCache(UPDATE_TIMESTAMPS, region(10_000, null));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * {@code app.cache.hit.ratio{region}} from Hibernate's statistics, so it is only
+     * populated while {@code hibernate.generate_statistics} is on.
+     */
+    @Bean
+    public MeterBinder secondLevelCacheHitRatio(Statistics hibernateStatistics) {
+        return registry -> {
+            for (String region : REGIONS) {
+                Gauge.builder("app.cache.hit.ratio", hibernateStatistics, statistics -> hitRatio(statistics, region))
+                        .tag("region", region)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double hitRatio(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        if (regionStatistics == null) {
+            return Double.NaN;
+        }
+        long hits = regionStatistics.getHitCount();
+        long requests = hits + regionStatistics.getMissCount();
+        return requests == 0 ? Double.NaN : (double) hits / requests;
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        // Hibernate already stores disassembled state, copying it again on every access buys nothing
+        configuration.setStoreByValue(false);
+        return configuration;
+    }
+}
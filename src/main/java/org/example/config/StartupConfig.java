@@ -0,0 +1,64 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+@Configuration
+public class StartupConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupConfig.class);
+
+    @Bean
+    public FirstRequestTimer firstRequestTimer(MeterRegistry meterRegistry) {
+        return new FirstRequestTimer(meterRegistry);
+    }
+
+    /**
+     * With {@code app.startup.training-run=true} the application serves a few requests to
+     * itself once it is ready and then exits, so that a JVM started with
+     * {@code -XX:ArchiveClassesAtExit} records the classes of both startup and the request
+     * path in its CDS archive. Checked at runtime rather than through a condition, because
+     * the training run uses the AOT-processed context, where conditions are fixed at build time.
+     */
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> trainingRun(
+            @Value("${app.startup.training-run:false}") boolean trainingRun) {
+        return event -> {
+            if (!trainingRun) {
+                return;
+            }
+            String base = "http://localhost:"
+                    + ((WebServerApplicationContext) event.getApplicationContext()).getWebServer().getPort();
+            HttpClient http = HttpClient.newHttpClient();
+            for (HttpRequest request : new HttpRequest[]{
+                    HttpRequest.newBuilder(URI.create(base + "/login")).GET().build(),
+                    HttpRequest.newBuilder(URI.create(base + "/api/auth/token"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"email\":\"training-run@localhost\",\"password\":\"training-run\"}"))
+                            .build()}) {
+                try {
+                    HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    log.info("Training run: {} {} -> {}", request.method(), request.uri().getPath(),
+                            response.statusCode());
+                } catch (Exception e) {
+                    log.warn("Training run: {} {} failed", request.method(), request.uri().getPath(), e);
+                }
+            }
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        };
+    }
+}
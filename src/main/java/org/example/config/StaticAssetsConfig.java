@@ -0,0 +1,54 @@
+package org.example.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+
+/**
+ * Serves {@code /js} and {@code /vendor} (see the asset executions in the pom) under
+ * content-hashed URLs, picking the pre-built brotli or gzip variant the client accepts.
+ * Templates link assets with {@code @{...}}, which {@link ResourceUrlEncodingFilter}
+ * rewrites to the hashed URL, so a changed file gets a new URL and the old one can be
+ * cached as immutable. The hash of each file is computed on first use and then cached
+ * unless {@code spring.web.resources.chain.cache} is off, which devtools does.
+ */
+@Configuration
+public class StaticAssetsConfig implements WebMvcConfigurer {
+
+    private static final String[] PATHS = {"/js/**", "/vendor/**"};
+    private static final String[] LOCATIONS = {"classpath:/static/js/", "classpath:/static/vendor/"};
+
+    private final CacheControl cacheControl;
+    private final boolean cacheResolved;
+
+    public StaticAssetsConfig(@Value("${app.assets.max-age:P365D}") Duration maxAge,
+                              @Value("${spring.web.resources.chain.cache:true}") boolean cacheResolved) {
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic().immutable();
+        this.cacheResolved = cacheResolved;
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (int i = 0; i < PATHS.length; i++) {
+            registry.addResourceHandler(PATHS[i])
+                    .addResourceLocations(LOCATIONS[i])
+                    .setCacheControl(cacheControl)
+                    .resourceChain(cacheResolved)
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+    }
+
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+}
@@ -1,32 +1,38 @@
 package org.example.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.example.model.RoleRegistry;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
 
 @Component
 public class SuccessUserHandler implements AuthenticationSuccessHandler {
 
+    private static final long ADMIN = RoleRegistry.mask("ADMIN");
+    private static final long USER = RoleRegistry.mask("USER");
+
+    private final Counter loginSuccess;
+
+    public SuccessUserHandler(MeterRegistry meterRegistry) {
+        this.loginSuccess = Counter.builder("app.login").tag("outcome", "success").register(meterRegistry);
+    }
+
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request,
                                         HttpServletResponse response,
                                         Authentication authentication) throws IOException {
-        Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
-        Set<String> roles = new HashSet<>();
-
-        authorities.forEach(authority -> roles.add(authority.getAuthority().toLowerCase()));
+        loginSuccess.increment();
+        long roles = RoleRegistry.mask(authentication);
 
-        if (roles.contains("admin") || roles.contains("role_admin")) {
+        if ((roles & ADMIN) != 0) {
             response.sendRedirect("/admin");
-        } else if (roles.contains("user") || roles.contains("role_user")) {
+        } else if ((roles & USER) != 0) {
             response.sendRedirect("/user");
         } else {
             response.sendRedirect("/");
@@ -0,0 +1,55 @@
+package org.example.config;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+@Configuration
+public class TokenConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenConfig.class);
+
+    private static final int MIN_KEY_BYTES = 32;
+
+    @Bean
+    public SecretKey tokenSigningKey(@Value("${app.security.token.secret:}") String secret) {
+        byte[] key;
+        if (secret.isBlank()) {
+            key = new byte[MIN_KEY_BYTES];
+            new SecureRandom().nextBytes(key);
+            log.warn("app.security.token.secret is not set; using a random signing key, so access tokens "
+                    + "are only valid on this instance until it restarts");
+        } else {
+            key = Base64.getDecoder().decode(secret.trim());
+            if (key.length < MIN_KEY_BYTES) {
+                throw new RuntimeException("app.security.token.secret must be at least 256 bits of base64");
+            }
+        }
+        return new SecretKeySpec(key, "HmacSHA256");
+    }
+
+    @Bean
+    public JwtEncoder jwtEncoder(SecretKey tokenSigningKey) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(tokenSigningKey));
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(SecretKey tokenSigningKey) {
+        return NimbusJwtDecoder.withSecretKey(tokenSigningKey)
+                .macAlgorithm(MacAlgorithm.HS256)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Opt-in virtual-thread execution mode ({@code app.threads.virtual=true}, Java 21+).
+ * Tomcat request processing, the application task executor (MVC async, {@code @Async})
+ * and the scheduler run on virtual threads. Because blocking no longer costs a platform
+ * thread, JDBC access is gated by {@link ConnectionLimitingDataSource} so thousands of
+ * virtual threads queue fairly instead of stampeding the Hikari pool.
+ * <p>
+ * Each Hikari pool gets its own permits, as many as it has connections unless
+ * {@code app.threads.virtual.max-db-concurrency} sets a count per pool. With replica
+ * routing the context's data source is a lazy proxy over the primary and replica pools,
+ * so the limit is applied inside {@link ReadWriteRoutingDataSource} rather than around
+ * the proxy, where one set of permits would be shared by pools of different sizes.
+ * <p>
+ * The project still compiles for Java 17, so the virtual-thread API is looked up
+ * reflectively and startup fails if the runtime does not provide it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    private final ThreadFactory requestThreadFactory = virtualThreadFactory("http-vt-");
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = newThreadPerTaskExecutor(requestThreadFactory);
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(newThreadPerTaskExecutor(virtualThreadFactory("task-vt-")));
+    }
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.setThreadFactory(virtualThreadFactory("scheduling-vt-"));
+        return scheduler;
+    }
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${app.threads.virtual.max-db-concurrency:0}") int maxConcurrency,
+            @Value("${app.threads.virtual.connection-wait:PT30S}") Duration connectionWait) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                try {
+                    if (dataSource.isWrapperFor(ReadWriteRoutingDataSource.class)) {
+                        dataSource.unwrap(ReadWriteRoutingDataSource.class).limitConnections(maxConcurrency, connectionWait);
+                        return bean;
+                    }
+                } catch (SQLException e) {
+                    throw new RuntimeException("Failed to inspect data source " + beanName, e);
+                }
+                int permits = maxConcurrency;
+                if (permits <= 0) {
+                    permits = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                }
+                return new ConnectionLimitingDataSource(dataSource, permits, connectionWait);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder connectionLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            Map<String, ConnectionLimitingDataSource> limiters = new LinkedHashMap<>();
+            try {
+                if (dataSource.isWrapperFor(ReadWriteRoutingDataSource.class)) {
+                    limiters.putAll(dataSource.unwrap(ReadWriteRoutingDataSource.class).getConnectionLimiters());
+                } else if (dataSource.isWrapperFor(ConnectionLimitingDataSource.class)) {
+                    ConnectionLimitingDataSource limiter = dataSource.unwrap(ConnectionLimitingDataSource.class);
+                    limiters.put(limiter.getTargetDataSource() instanceof HikariDataSource hikari
+                            ? hikari.getPoolName() : "default", limiter);
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to inspect data source", e);
+            }
+            limiters.forEach((pool, limiter) -> {
+                Gauge.builder("app.db.permits.available", limiter, ConnectionLimitingDataSource::getAvailablePermits)
+                        .tag("pool", pool)
+                        .register(registry);
+                Gauge.builder("app.db.permits.waiting", limiter, ConnectionLimitingDataSource::getQueueLength)
+                        .tag("pool", pool)
+                        .register(registry);
+            });
+        };
+    }
+
+    static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Method name = Class.forName("java.lang.Thread$Builder$OfVirtual").getMethod("name", String.class, long.class);
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            Object builder = name.invoke(Thread.class.getMethod("ofVirtual").invoke(null), prefix, 0L);
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new RuntimeException("app.threads.virtual=true requires Java 21 or newer, running on "
+                    + Runtime.version());
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to create virtual thread factory", e);
+        }
+    }
+
+    private static ExecutorService newThreadPerTaskExecutor(ThreadFactory threadFactory) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to create virtual thread executor", e);
+        }
+    }
+}
@@ -1,16 +1,36 @@
 package org.example.config;
 
+import org.example.exception.LoginThrottledException;
+import org.example.model.RoleRegistry;
+import org.example.exception.PasswordHashingOverloadedException;
+import org.example.service.TokenService;
 import org.example.service.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.util.Collection;
 
 @Configuration
 @EnableWebSecurity
@@ -18,14 +38,61 @@ public class WebSecurityConfig {
 
     private final UserDetailsServiceImpl userDetailsService;
     private final SuccessUserHandler successUserHandler;
+    private final FailureUserHandler failureUserHandler;
     private final PasswordEncoder passwordEncoder;
+    private final LoginThrottle loginThrottle;
 
     public WebSecurityConfig(@Qualifier("userDetailsServiceImpl") UserDetailsService userDetailsService,
                              SuccessUserHandler successUserHandler,
-                             PasswordEncoder passwordEncoder) {
+                             FailureUserHandler failureUserHandler,
+                             PasswordEncoder passwordEncoder,
+                             LoginThrottle loginThrottle) {
         this.userDetailsService = (UserDetailsServiceImpl) userDetailsService;
         this.successUserHandler = successUserHandler;
+        this.failureUserHandler = failureUserHandler;
         this.passwordEncoder = passwordEncoder;
+        this.loginThrottle = loginThrottle;
+    }
+
+    @Bean
+    @Order(1)
+    public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/api/**")
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/api/auth/token", "/api/auth/refresh", "/api/auth/revoke").permitAll()
+                        .requestMatchers("/api/admin/**").access(RoleMaskAuthorizationManager.hasRole("ADMIN"))
+                        .requestMatchers("/api/user/**").access(RoleMaskAuthorizationManager.hasAnyRole("USER", "ADMIN"))
+                        .anyRequest().authenticated()
+                )
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .bearerTokenResolver(bearerTokenResolver())
+                        .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter()))
+                );
+
+        return http.build();
+    }
+
+    /**
+     * Only health is public. Metrics expose user counts, query texts and timings, so
+     * scraping them takes an admin account over HTTP Basic, which scrapers support.
+     */
+    @Bean
+    @Order(2)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/actuator/**")
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .anyRequest().access(RoleMaskAuthorizationManager.hasRole("ADMIN"))
+                )
+                .httpBasic(Customizer.withDefaults());
+
+        return http.build();
     }
 
     @Bean
@@ -33,9 +100,7 @@ public class WebSecurityConfig {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
-                        .requestMatchers("/api/user/**").hasAnyRole("USER", "ADMIN")
-                        .requestMatchers("/", "/login", "/css/**", "/js/**", "/webjars/**").permitAll()
+                        .requestMatchers("/", "/login", "/error", "/js/**", "/vendor/**").permitAll()
                         .anyRequest().authenticated()
                 )
                 .formLogin(form -> form
@@ -44,7 +109,7 @@ public class WebSecurityConfig {
                         .usernameParameter("email")
                         .passwordParameter("password")
                         .successHandler(successUserHandler)
-                        .failureUrl("/login?error=true")
+                        .failureHandler(failureUserHandler)
                         .permitAll()
                 )
                 .logout(logout -> logout
@@ -56,11 +121,63 @@ public class WebSecurityConfig {
         return http.build();
     }
 
+    @Bean
+    public AuthenticationManager authenticationManager() {
+        return new ProviderManager(authenticationProvider());
+    }
+
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider() {
+            @Override
+            public Authentication authenticate(Authentication authentication) {
+                String email = authentication.getName();
+                String address = authentication.getDetails() instanceof WebAuthenticationDetails details
+                        ? details.getRemoteAddress()
+                        : null;
+                try {
+                    loginThrottle.check(email, address);
+                    Authentication result = super.authenticate(authentication);
+                    loginThrottle.recordSuccess(email);
+                    return result;
+                } catch (BadCredentialsException e) {
+                    loginThrottle.recordFailure(email, address);
+                    throw e;
+                } catch (PasswordHashingOverloadedException | LoginThrottledException e) {
+                    throw new AuthenticationServiceException(e.getMessage(), e);
+                }
+            }
+        };
         authProvider.setUserDetailsService(userDetailsService);
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
-}
\ No newline at end of file
+
+    public static JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(WebSecurityConfig::roleAuthorities);
+        return converter;
+    }
+
+    // Reads the raw claim: getClaimAsStringList goes through the conversion service on every request
+    private static Collection<GrantedAuthority> roleAuthorities(Jwt jwt) {
+        long mask = 0;
+        if (jwt.getClaim(TokenService.CLAIM_ROLES) instanceof Collection<?> roles) {
+            for (Object role : roles) {
+                mask |= RoleRegistry.mask(role.toString());
+            }
+        }
+        return RoleRegistry.authorities(mask);
+    }
+
+    private static BearerTokenResolver bearerTokenResolver() {
+        DefaultBearerTokenResolver headerResolver = new DefaultBearerTokenResolver();
+        // EventSource cannot send headers, so the event stream also accepts ?access_token=
+        DefaultBearerTokenResolver queryResolver = new DefaultBearerTokenResolver();
+        queryResolver.setAllowUriQueryParameter(true);
+        return request -> "/api/admin/users/events".equals(request.getRequestURI())
+                ? queryResolver.resolve(request)
+                : headerResolver.resolve(request);
+    }
+}
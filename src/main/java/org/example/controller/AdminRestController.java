@@ -1,15 +1,38 @@
 package org.example.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.example.dto.AuditPage;
+import org.example.dto.CreateUserRequest;
+import org.example.dto.ImportResult;
+import org.example.dto.UpdateUserRequest;
+import org.example.dto.UserChanges;
+import org.example.dto.UserPage;
+import org.example.dto.UserSearchPage;
+import org.example.dto.UserView;
 import org.example.model.Role;
-import org.example.model.User;
+import org.example.service.AuditService;
 import org.example.service.RoleService;
+import org.example.service.UserChangeService;
+import org.example.service.UserEventBroadcaster;
+import org.example.service.UserExportService;
+import org.example.service.UserImportService;
 import org.example.service.UserService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -17,33 +40,110 @@ public class AdminRestController {
 
     private final UserService userService;
     private final RoleService roleService;
+    private final UserImportService userImportService;
+    private final UserExportService userExportService;
+    private final UserChangeService userChangeService;
+    private final UserEventBroadcaster userEventBroadcaster;
+    private final AuditService auditService;
 
-    public AdminRestController(UserService userService, RoleService roleService) {
+    public AdminRestController(UserService userService, RoleService roleService,
+                               UserImportService userImportService,
+                               UserExportService userExportService, UserChangeService userChangeService,
+                               UserEventBroadcaster userEventBroadcaster, AuditService auditService) {
         this.userService = userService;
         this.roleService = roleService;
+        this.userImportService = userImportService;
+        this.userExportService = userExportService;
+        this.userChangeService = userChangeService;
+        this.userEventBroadcaster = userEventBroadcaster;
+        this.auditService = auditService;
     }
 
     @GetMapping("/users")
-    public ResponseEntity<?> getAllUsers() {
-        List<User> users = userService.findAllUsers();
-        return ResponseEntity.ok(Map.of("users", users));
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "50") int size,
+                                         @RequestParam(defaultValue = "asc") String sort,
+                                         @RequestParam(required = false) String email,
+                                         @RequestParam(required = false) String lastName,
+                                         @RequestParam(required = false) String role,
+                                         WebRequest webRequest) {
+        String etag = "users-" + userService.getUsersRevision() + "-" +
+                Integer.toHexString(Objects.hash(cursor, size, sort, email, lastName, role));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        UserPage page = userService.findUsersPage(cursor, size, "desc".equalsIgnoreCase(sort),
+                email, lastName, role);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/users/search")
+    public ResponseEntity<?> searchUsers(@RequestParam("q") String query,
+                                         @RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "20") int size) {
+        UserSearchPage result = userService.searchUsers(query, page, size);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/users/changes")
+    public ResponseEntity<?> getUserChanges(@RequestParam long since,
+                                            @RequestParam(defaultValue = "500") int limit) {
+        UserChanges changes = userChangeService.findChangesSince(since, limit);
+        return ResponseEntity.ok(changes);
+    }
+
+    @GetMapping("/users/events")
+    public void subscribeToUserEvents(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!userEventBroadcaster.subscribe(request, response)) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+        }
     }
 
     @GetMapping("/users/{id}")
-    public ResponseEntity<?> getUserById(@PathVariable Long id) {
-        User user = userService.findUserById(id);
+    public ResponseEntity<?> getUserById(@PathVariable Long id, WebRequest webRequest) {
+        long version = userService.findUserVersion(id);
+        if (webRequest.checkNotModified("user-" + id + "-" + version)) {
+            return null;
+        }
+        UserView user = userService.findUserViewById(id, version);
         return ResponseEntity.ok(user);
     }
 
     @PostMapping("/users")
-    public ResponseEntity<?> createUser(@RequestBody Map<String, Object> request) {
-        User createdUser = userService.createUserFromMap(request);
+    public ResponseEntity<?> createUser(@Valid @RequestBody CreateUserRequest request) {
+        UserView createdUser = userService.createUser(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
     }
 
+    @PostMapping(value = "/users/import", consumes = "application/x-ndjson")
+    public ResponseEntity<?> importUsersNdjson(InputStream body) {
+        ImportResult result = userImportService.importNdjson(body);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping(value = "/users/import", consumes = "text/csv")
+    public ResponseEntity<?> importUsersCsv(InputStream body) {
+        ImportResult result = userImportService.importCsv(body);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        StreamingResponseBody body = csv ? userExportService::exportCsv : userExportService::exportNdjson;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(csv ? "users.csv" : "users.ndjson")
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @PutMapping("/users/{id}")
-    public ResponseEntity<?> updateUser(@PathVariable Long id, @RequestBody Map<String, Object> request) {
-        User updatedUser = userService.updateUserFromMap(id, request);
+    public ResponseEntity<?> updateUser(@PathVariable Long id, @Valid @RequestBody UpdateUserRequest request) {
+        UserView updatedUser = userService.updateUser(id, request);
         return ResponseEntity.ok(updatedUser);
     }
 
@@ -53,9 +153,20 @@ public class AdminRestController {
         return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
     }
 
+    @GetMapping("/audit")
+    public ResponseEntity<?> getAuditLog(@RequestParam(required = false) Long userId,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "50") int size) {
+        AuditPage page = auditService.findEntries(userId, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/roles")
-    public ResponseEntity<?> getAllRoles() {
+    public ResponseEntity<?> getAllRoles(WebRequest webRequest) {
+        if (webRequest.checkNotModified("roles-" + roleService.getRolesRevision())) {
+            return null;
+        }
         List<Role> roles = roleService.findAllRoles();
         return ResponseEntity.ok(roles);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+package org.example.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.example.dto.RefreshTokenRequest;
+import org.example.dto.TokenRequest;
+import org.example.dto.TokenResponse;
+import org.example.model.UserPrincipal;
+import org.example.service.TokenService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class AuthRestController {
+
+    private final AuthenticationManager authenticationManager;
+    private final TokenService tokenService;
+
+    public AuthRestController(AuthenticationManager authenticationManager, TokenService tokenService) {
+        this.authenticationManager = authenticationManager;
+        this.tokenService = tokenService;
+    }
+
+    @PostMapping("/api/auth/token")
+    public ResponseEntity<?> issueToken(@Valid @RequestBody TokenRequest request,
+                                        HttpServletRequest servletRequest) {
+        UsernamePasswordAuthenticationToken credentials =
+                UsernamePasswordAuthenticationToken.unauthenticated(request.email(), request.password());
+        credentials.setDetails(new WebAuthenticationDetails(servletRequest));
+        Authentication authentication = authenticationManager.authenticate(credentials);
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        TokenResponse tokens = tokenService.issueTokens(principal.getId());
+        return ResponseEntity.ok(tokens);
+    }
+
+    @PostMapping("/api/auth/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        TokenResponse tokens = tokenService.refreshTokens(request.refreshToken());
+        return ResponseEntity.ok(tokens);
+    }
+
+    @PostMapping("/api/auth/revoke")
+    public ResponseEntity<?> revokeToken(@Valid @RequestBody RefreshTokenRequest request) {
+        tokenService.revokeRefreshToken(request.refreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Exchanges the form-login session of the server-rendered pages for API tokens.
+     */
+    @PostMapping("/auth/session-token")
+    public ResponseEntity<?> exchangeSession(@AuthenticationPrincipal UserPrincipal currentUser) {
+        TokenResponse tokens = tokenService.issueTokens(currentUser.getId());
+        return ResponseEntity.ok(tokens);
+    }
+}
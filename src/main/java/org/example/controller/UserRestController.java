@@ -1,9 +1,10 @@
 package org.example.controller;
 
-import org.example.model.User;
-import org.example.service.UserService;
+import org.example.dto.UserView;
+import org.example.service.TokenService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -12,14 +13,14 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/user")
 public class UserRestController {
 
-    private final UserService userService;
+    private final TokenService tokenService;
 
-    public UserRestController(UserService userService) {
-        this.userService = userService;
+    public UserRestController(TokenService tokenService) {
+        this.tokenService = tokenService;
     }
 
     @GetMapping("/info")
-    public ResponseEntity<User> getCurrentUserInfo(@AuthenticationPrincipal User currentUser) {
-        return ResponseEntity.ok(currentUser);
+    public ResponseEntity<UserView> getCurrentUserInfo(@AuthenticationPrincipal Jwt accessToken) {
+        return ResponseEntity.ok(tokenService.toUserView(accessToken));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import org.example.model.AuditEntry;
+
+import java.time.Instant;
+
+public record AuditEntryView(Long id, Instant occurredAt, Long actorId, String actor, AuditEntry.Action action,
+                             Long userId, @JsonRawValue String changes) {
+
+    public static AuditEntryView from(AuditEntry entry) {
+        return new AuditEntryView(entry.getId(), entry.getOccurredAt(), entry.getActorId(), entry.getActor(),
+                entry.getAction(), entry.getUserId(), entry.getChanges());
+    }
+}
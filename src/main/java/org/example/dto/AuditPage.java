@@ -0,0 +1,6 @@
+package org.example.dto;
+
+import java.util.List;
+
+public record AuditPage(List<AuditEntryView> entries, String nextCursor) {
+}
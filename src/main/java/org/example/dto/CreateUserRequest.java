@@ -0,0 +1,33 @@
+package org.example.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.util.Set;
+
+public record CreateUserRequest(
+        @NotBlank(message = "First name is required")
+        @Size(max = 255)
+        String firstName,
+
+        @NotBlank(message = "Last name is required")
+        @Size(max = 255)
+        String lastName,
+
+        @PositiveOrZero
+        @Max(150)
+        Integer age,
+
+        @NotBlank(message = "Email is required")
+        @Email
+        @Size(max = 255)
+        String email,
+
+        @NotBlank(message = "Password is required")
+        String password,
+
+        Set<String> roles) {
+}
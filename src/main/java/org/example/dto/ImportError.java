@@ -0,0 +1,4 @@
+package org.example.dto;
+
+public record ImportError(long line, String email, String message) {
+}
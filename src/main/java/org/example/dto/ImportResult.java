@@ -0,0 +1,6 @@
+package org.example.dto;
+
+import java.util.List;
+
+public record ImportResult(long imported, long failed, List<ImportError> errors) {
+}
@@ -0,0 +1,4 @@
+package org.example.dto;
+
+public record RoleView(String name) {
+}
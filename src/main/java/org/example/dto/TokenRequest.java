@@ -0,0 +1,11 @@
+package org.example.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record TokenRequest(
+        @NotBlank(message = "Email is required")
+        String email,
+
+        @NotBlank(message = "Password is required")
+        String password) {
+}
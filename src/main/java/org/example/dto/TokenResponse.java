@@ -0,0 +1,7 @@
+package org.example.dto;
+
+public record TokenResponse(String accessToken,
+                            String refreshToken,
+                            String tokenType,
+                            long expiresIn) {
+}
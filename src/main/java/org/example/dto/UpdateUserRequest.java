@@ -0,0 +1,37 @@
+package org.example.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.util.Set;
+
+/**
+ * Partial update: a {@code null} field is left unchanged, as is a blank password.
+ */
+public record UpdateUserRequest(
+        @Pattern(regexp = NOT_BLANK, message = "First name cannot be empty")
+        @Size(max = 255)
+        String firstName,
+
+        @Pattern(regexp = NOT_BLANK, message = "Last name cannot be empty")
+        @Size(max = 255)
+        String lastName,
+
+        @PositiveOrZero
+        @Max(150)
+        Integer age,
+
+        @Pattern(regexp = NOT_BLANK, message = "Email cannot be empty")
+        @Email
+        @Size(max = 255)
+        String email,
+
+        String password,
+
+        Set<String> roles) {
+
+    static final String NOT_BLANK = "(?s).*\\S.*";
+}
@@ -0,0 +1,7 @@
+package org.example.dto;
+
+import java.util.List;
+
+public record UserChanges(boolean reset, long latest, boolean hasMore,
+                          List<UserView> upserts, List<Long> deletes) {
+}
@@ -0,0 +1,4 @@
+package org.example.dto;
+
+public record UserExportRow(Long id, String firstName, String lastName, Integer age, String email, String roleName) {
+}
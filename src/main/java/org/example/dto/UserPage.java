@@ -0,0 +1,6 @@
+package org.example.dto;
+
+import java.util.List;
+
+public record UserPage(List<UserView> users, String nextCursor, Long changeSeq) {
+}
@@ -0,0 +1,6 @@
+package org.example.dto;
+
+import java.util.List;
+
+public record UserSearchPage(List<UserView> users, int page, boolean hasMore) {
+}
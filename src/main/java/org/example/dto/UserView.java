@@ -0,0 +1,32 @@
+package org.example.dto;
+
+import org.example.model.User;
+
+import java.util.Arrays;
+import java.util.List;
+
+public record UserView(Long id,
+                       String firstName,
+                       String lastName,
+                       Integer age,
+                       String email,
+                       List<RoleView> roles) {
+
+    public UserView(Long id, String firstName, String lastName, Integer age, String email, String roleNames) {
+        this(id, firstName, lastName, age, email, parseRoleNames(roleNames));
+    }
+
+    public static UserView from(User user) {
+        return new UserView(user.getId(), user.getFirstName(), user.getLastName(), user.getAge(), user.getEmail(),
+                user.getRoles().stream().map(role -> new RoleView(role.getName())).toList());
+    }
+
+    private static List<RoleView> parseRoleNames(String roleNames) {
+        if (roleNames == null || roleNames.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(roleNames.split(","))
+                .map(RoleView::new)
+                .toList();
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.event;
+
+import java.util.Map;
+
+/**
+ * {@code changes} maps a field name to its old and new value; it is empty for writes that
+ * carry no admin-visible change, such as a password hash upgrade on login.
+ */
+public record UserChangedEvent(Type type, Long userId, String email, String previousEmail,
+                               Map<String, FieldChange> changes) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public record FieldChange(Object oldValue, Object newValue) {
+
+        public static final String REDACTED = "[redacted]";
+    }
+
+    public UserChangedEvent(Type type, Long userId, String email, String previousEmail) {
+        this(type, userId, email, previousEmail, Map.of());
+    }
+
+    /**
+     * An update nothing outside the credentials cares about: listeners that show, log or
+     * replay admin-visible state skip it.
+     */
+    public boolean isEmptyUpdate() {
+        return type == Type.UPDATED && changes.isEmpty();
+    }
+}
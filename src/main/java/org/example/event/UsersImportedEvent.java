@@ -0,0 +1,23 @@
+package org.example.event;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Users created together by one import chunk. Published once per chunk rather than a
+ * {@link UserChangedEvent} per row, so that listeners fanning out to clients send one
+ * message for the whole chunk.
+ */
+public record UsersImportedEvent(List<ImportedUser> users) {
+
+    /**
+     * {@code changes} holds the initial values, as for a {@link UserChangedEvent} of type
+     * {@code CREATED}.
+     */
+    public record ImportedUser(Long userId, String email, Map<String, UserChangedEvent.FieldChange> changes) {
+    }
+
+    public List<Long> userIds() {
+        return users.stream().map(ImportedUser::userId).toList();
+    }
+}
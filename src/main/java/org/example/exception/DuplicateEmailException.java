@@ -0,0 +1,8 @@
+package org.example.exception;
+
+public class DuplicateEmailException extends RuntimeException {
+
+    public DuplicateEmailException(String email, Throwable cause) {
+        super("User with email " + email + " already exists", cause);
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Append-only; rows are inserted in batches by {@code AuditLogWriter} over JDBC, never
+ * through the entity manager.
+ */
+@Entity
+@Table(name = "audit_log", indexes = @Index(name = "idx_audit_log_user_id", columnList = "user_id, id"))
+public class AuditEntry {
+
+    public enum Action {
+        CREATED, UPDATED, DELETED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    @Column(name = "actor_id")
+    private Long actorId;
+
+    @Column(name = "actor", nullable = false)
+    private String actor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action", nullable = false, length = 16)
+    private Action action;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "changes", nullable = false, columnDefinition = "text")
+    private String changes;
+
+    public AuditEntry() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public Long getActorId() {
+        return actorId;
+    }
+
+    public String getActor() {
+        return actor;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getChanges() {
+        return changes;
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.model;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.Serial;
+
+/**
+ * The single {@link GrantedAuthority} instance for a role name, carrying the role's bit in
+ * {@link RoleRegistry}. Obtained only through the registry, so instances can be compared
+ * by identity and their {@code ROLE_} string is built once.
+ */
+public final class RoleAuthority implements GrantedAuthority {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String role;
+    private final String authority;
+    private final long mask;
+
+    RoleAuthority(String role, int bit) {
+        this.role = role;
+        this.authority = "ROLE_" + role;
+        this.mask = 1L << bit;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    @Override
+    public String getAuthority() {
+        return authority;
+    }
+
+    public long getMask() {
+        return mask;
+    }
+
+    /**
+     * Bits are assigned per process, so a deserialized authority (for example from a
+     * persisted session) is exchanged for this process's instance.
+     */
+    @Serial
+    private Object readResolve() {
+        return RoleRegistry.authority(role);
+    }
+
+    @Override
+    public String toString() {
+        return authority;
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.model;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide numbering of role names. Each name gets the next free bit the first time
+ * it is seen, so a set of roles is a {@code long} mask and a role check is a single AND.
+ * Masks are only meaningful inside this process and are never stored or sent anywhere;
+ * tokens and the database keep role names.
+ */
+public final class RoleRegistry {
+
+    public static final int MAX_ROLES = Long.SIZE;
+
+    private static final Map<String, RoleAuthority> BY_NAME = new ConcurrentHashMap<>();
+    private static final RoleAuthority[] BY_BIT = new RoleAuthority[MAX_ROLES];
+    private static final Map<Long, List<GrantedAuthority>> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private RoleRegistry() {
+    }
+
+    public static RoleAuthority authority(String role) {
+        RoleAuthority authority = BY_NAME.get(role);
+        return authority != null ? authority : register(role);
+    }
+
+    public static long mask(String role) {
+        return authority(role).getMask();
+    }
+
+    public static long mask(Collection<String> roles) {
+        long mask = 0;
+        for (String role : roles) {
+            mask |= mask(role);
+        }
+        return mask;
+    }
+
+    /**
+     * The roles held by an authentication. Authorities that are not role authorities
+     * (scopes, {@code ROLE_ANONYMOUS}) contribute nothing.
+     */
+    public static long mask(Authentication authentication) {
+        if (authentication == null) {
+            return 0;
+        }
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getRoleMask();
+        }
+        long mask = 0;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (authority instanceof RoleAuthority role) {
+                mask |= role.getMask();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Shared immutable authority list for a mask, ordered by bit.
+     */
+    public static List<GrantedAuthority> authorities(long mask) {
+        List<GrantedAuthority> authorities = AUTHORITIES.get(mask);
+        return authorities != null ? authorities : AUTHORITIES.computeIfAbsent(mask, RoleRegistry::build);
+    }
+
+    private static synchronized RoleAuthority register(String role) {
+        RoleAuthority existing = BY_NAME.get(role);
+        if (existing != null) {
+            return existing;
+        }
+        int bit = BY_NAME.size();
+        if (bit == MAX_ROLES) {
+            throw new IllegalStateException("Cannot register role " + role + ": all " + MAX_ROLES + " role bits are taken");
+        }
+        RoleAuthority authority = new RoleAuthority(role, bit);
+        BY_BIT[bit] = authority;
+        BY_NAME.put(role, authority);
+        return authority;
+    }
+
+    private static synchronized List<GrantedAuthority> build(long mask) {
+        List<GrantedAuthority> authorities = new ArrayList<>(Long.bitCount(mask));
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            RoleAuthority authority = BY_BIT[Long.numberOfTrailingZeros(remaining)];
+            if (authority == null) {
+                throw new IllegalArgumentException("Role mask " + Long.toBinaryString(mask) + " has unregistered bits");
+            }
+            authorities.add(authority);
+        }
+        return List.copyOf(authorities);
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "user_changes", indexes = @Index(name = "idx_user_changes_user_seq", columnList = "user_id, seq"))
+public class UserChange implements Persistable<Long> {
+
+    public enum Type {
+        UPSERT, DELETE
+    }
+
+    @Id
+    @Column(name = "seq")
+    private Long seq;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 16)
+    private Type type;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    @Transient
+    private boolean isNew;
+
+    public UserChange() {}
+
+    public UserChange(Long seq, Long userId, Type type, Instant changedAt) {
+        this.seq = seq;
+        this.userId = userId;
+        this.type = type;
+        this.changedAt = changedAt;
+        this.isNew = true;
+    }
+
+    @Override
+    public Long getId() {
+        return seq;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.model;
+
+import jakarta.persistence.*;
+
+/**
+ * The last position handed out in the user change log, and the highest one compaction
+ * may have removed. A single row, locked by every transaction that writes to the log
+ * until it commits.
+ */
+@Entity
+@Table(name = "user_change_counter")
+public class UserChangeCounter {
+
+    public static final int ID = 1;
+
+    @Id
+    @Column(name = "id")
+    private Integer id;
+
+    @Column(name = "seq", nullable = false)
+    private long seq;
+
+    @Column(name = "horizon", nullable = false)
+    private long horizon;
+
+    public UserChangeCounter() {}
+
+    public UserChangeCounter(Integer id, long seq) {
+        this.id = id;
+        this.seq = seq;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    /**
+     * Reserves the next {@code count} positions and returns the first of them.
+     */
+    public long advance(int count) {
+        long first = seq + 1;
+        seq += count;
+        return first;
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.model;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+public final class UserPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final String passwordHash;
+    private final long roleMask;
+    private final List<GrantedAuthority> authorities;
+    private final boolean accountNonExpired;
+    private final boolean accountNonLocked;
+    private final boolean credentialsNonExpired;
+    private final boolean enabled;
+
+    public UserPrincipal(Long id, String email, String passwordHash, long roleMask,
+                         boolean accountNonExpired, boolean accountNonLocked,
+                         boolean credentialsNonExpired, boolean enabled) {
+        this.id = id;
+        this.email = email;
+        this.passwordHash = passwordHash;
+        this.roleMask = roleMask;
+        this.authorities = RoleRegistry.authorities(roleMask);
+        this.accountNonExpired = accountNonExpired;
+        this.accountNonLocked = accountNonLocked;
+        this.credentialsNonExpired = credentialsNonExpired;
+        this.enabled = enabled;
+    }
+
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getPassword(), user.getRoleMask(),
+                user.isAccountNonExpired(), user.isAccountNonLocked(),
+                user.isCredentialsNonExpired(), user.isEnabled());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getRoleMask() {
+        return roleMask;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return passwordHash;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return accountNonExpired;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return accountNonLocked;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return credentialsNonExpired;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal{" +
+                "id=" + id +
+                ", email='" + email + '\'' +
+                ", authorities=" + authorities +
+                '}';
+    }
+}
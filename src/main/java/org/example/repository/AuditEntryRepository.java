@@ -0,0 +1,20 @@
+package org.example.repository;
+
+import org.example.model.AuditEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AuditEntryRepository extends JpaRepository<AuditEntry, Long> {
+
+    @Query("select e from AuditEntry e where e.id < :beforeId " +
+            "and (:userId is null or e.userId = :userId) order by e.id desc")
+    List<AuditEntry> findPageBefore(@Param("beforeId") long beforeId,
+                                    @Param("userId") Long userId,
+                                    Pageable limit);
+}
@@ -0,0 +1,30 @@
+package org.example.repository;
+
+import jakarta.persistence.LockModeType;
+import org.example.model.UserChangeCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserChangeCounterRepository extends JpaRepository<UserChangeCounter, Integer> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from UserChangeCounter c where c.id = :id")
+    Optional<UserChangeCounter> findForUpdate(@Param("id") Integer id);
+
+    @Query("select c.seq from UserChangeCounter c where c.id = :id")
+    Optional<Long> findSeq(@Param("id") Integer id);
+
+    @Query("select c.horizon from UserChangeCounter c where c.id = :id")
+    Optional<Long> findHorizon(@Param("id") Integer id);
+
+    @Modifying
+    @Query("update UserChangeCounter c set c.horizon = :horizon where c.id = :id and c.horizon < :horizon")
+    int raiseHorizon(@Param("id") Integer id, @Param("horizon") long horizon);
+}
@@ -0,0 +1,36 @@
+package org.example.repository;
+
+import org.example.model.UserChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface UserChangeRepository extends JpaRepository<UserChange, Long> {
+
+    @Query("select c from UserChange c where c.seq > :since order by c.seq")
+    List<UserChange> findAfter(@Param("since") long since, Pageable limit);
+
+    @Query("select coalesce(max(c.seq), 0) from UserChange c")
+    long findMaxSeq();
+
+    @Modifying
+    @Query("delete from UserChange c where exists " +
+            "(select n.seq from UserChange n where n.userId = c.userId and n.seq > c.seq)")
+    int deleteSuperseded();
+
+    @Query("select coalesce(max(c.seq), 0) from UserChange c " +
+            "where c.type = :type and c.changedAt < :cutoff " +
+            "and c.seq < (select max(l.seq) from UserChange l)")
+    long findLastExpired(@Param("type") UserChange.Type type, @Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query("delete from UserChange c where c.type = :type and c.seq <= :seq")
+    int deleteUpTo(@Param("type") UserChange.Type type, @Param("seq") long seq);
+}
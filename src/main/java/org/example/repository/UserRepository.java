@@ -1,13 +1,128 @@
 package org.example.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.dto.UserExportRow;
+import org.example.dto.UserView;
 import org.example.model.User;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email);
-    boolean existsByEmail(String email);
+
+    String USER_VIEW_SELECT = "select new org.example.dto.UserView(u.id, u.firstName, u.lastName, u.age, u.email, " +
+            "listagg(r.name, ',') within group (order by r.name)) " +
+            "from User u left join u.roles r ";
+
+    String USER_VIEW_GROUP_BY = "group by u.id, u.firstName, u.lastName, u.age, u.email ";
+
+    // lower(u.email) matches idx_users_email_lower_prefix; callers pass a normalized prefix
+    String PAGE_FILTERS = "and (:emailPattern is null or lower(u.email) like :emailPattern escape '\\') " +
+            "and (:lastName is null or u.lastName = :lastName) " +
+            "and (:role is null or exists (select fr.id from u.roles fr where fr.name = :role)) ";
+
+    // lower(u.email) matches the unique index; callers pass User.normalizeEmail(...)
+    @EntityGraph(attributePaths = "roles")
+    @Query("select u from User u where lower(u.email) = :email")
+    Optional<User> findByEmail(@Param("email") String email);
+
+    @Query("select count(u) > 0 from User u where lower(u.email) = :email")
+    boolean existsByEmail(@Param("email") String email);
+
+    // Stops at the first row, unlike count()
+    @Query(value = "select exists(select 1 from users)", nativeQuery = true)
+    boolean existsAny();
+
+    // A scalar query, so it is answered by the database rather than the second-level cache
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select u.email from User u where lower(u.email) in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query(USER_VIEW_SELECT + "where u.id = :id " + USER_VIEW_GROUP_BY)
+    Optional<UserView> findViewById(@Param("id") Long id);
+
+    @Query(USER_VIEW_SELECT + "where u.id in :ids " + USER_VIEW_GROUP_BY + "order by u.id")
+    List<UserView> findViewsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(USER_VIEW_SELECT + "where u.id > :afterId " + PAGE_FILTERS + USER_VIEW_GROUP_BY +
+            "order by u.id asc")
+    List<UserView> findPageAfter(@Param("afterId") long afterId,
+                                 @Param("emailPattern") String emailPattern,
+                                 @Param("lastName") String lastName,
+                                 @Param("role") String role,
+                                 Pageable limit);
+
+    @Query(USER_VIEW_SELECT + "where u.id < :beforeId " + PAGE_FILTERS + USER_VIEW_GROUP_BY +
+            "order by u.id desc")
+    List<UserView> findPageBefore(@Param("beforeId") long beforeId,
+                                  @Param("emailPattern") String emailPattern,
+                                  @Param("lastName") String lastName,
+                                  @Param("role") String role,
+                                  Pageable limit);
+
+    // The candidates are the first matches by id, so every page of a query ranks the same set
+    @Query(value = "select c.id from (" +
+            "select u.id, u.search_vector from users u " +
+            "where u.search_vector @@ to_tsquery('simple', :tsQuery) order by u.id limit :candidates) c " +
+            "order by ts_rank(c.search_vector, to_tsquery('simple', :tsQuery)) desc, c.id " +
+            "limit :limit offset :offset", nativeQuery = true)
+    List<Long> searchIdsByPrefix(@Param("tsQuery") String tsQuery,
+                                 @Param("candidates") int candidates,
+                                 @Param("limit") int limit,
+                                 @Param("offset") int offset);
+
+    // "u.id + 0" keeps the planner off the primary key: walking it would test the trigram
+    // condition row by row, which costs far more than collecting the matches from the index
+    @Query(value = "select c.id from (" +
+            "select u.id, u.search_text from users u " +
+            "where u.search_text like :pattern escape '\\' order by u.id + 0 limit :candidates) c " +
+            "order by word_similarity(:term, c.search_text) desc, c.id " +
+            "limit :limit offset :offset", nativeQuery = true)
+    List<Long> searchIdsBySubstring(@Param("term") String term,
+                                    @Param("pattern") String pattern,
+                                    @Param("candidates") int candidates,
+                                    @Param("limit") int limit,
+                                    @Param("offset") int offset);
+
+    @Query(value = "select c.id from (" +
+            "select u.id, u.search_text from users u " +
+            "where :term <% u.search_text order by u.id + 0 limit :candidates) c " +
+            "order by word_similarity(:term, c.search_text) desc, c.id " +
+            "limit :limit offset :offset", nativeQuery = true)
+    List<Long> searchIdsBySimilarity(@Param("term") String term,
+                                     @Param("candidates") int candidates,
+                                     @Param("limit") int limit,
+                                     @Param("offset") int offset);
+
+    @Query(value = "select exists(select 1 from users u " +
+            "where u.search_vector @@ to_tsquery('simple', :tsQuery))", nativeQuery = true)
+    boolean existsByPrefix(@Param("tsQuery") String tsQuery);
+
+    @Query(value = "select exists(select 1 from users u " +
+            "where u.search_text like :pattern escape '\\')", nativeQuery = true)
+    boolean existsBySubstring(@Param("pattern") String pattern);
+
+    @Query(value = "select exists(select 1 from users u where :term <% u.search_text)", nativeQuery = true)
+    boolean existsBySimilarity(@Param("term") String term);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new org.example.dto.UserExportRow(u.id, u.firstName, u.lastName, u.age, u.email, r.name) " +
+            "from User u left join u.roles r order by u.id, r.name")
+    Stream<UserExportRow> streamExportRows();
 }
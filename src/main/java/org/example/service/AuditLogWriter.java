@@ -0,0 +1,245 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.example.event.UserChangedEvent;
+import org.example.event.UsersImportedEvent;
+import org.example.model.AuditEntry;
+import org.example.model.UserPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records committed user changes in the append-only {@code audit_log} table without
+ * adding a write to the request's transaction. After commit the request thread only
+ * places the entry in a lock-free ring buffer; a single background thread drains it and
+ * inserts batches over JDBC. When the buffer is full, entries are either dropped at once
+ * or the request thread waits up to {@code block-timeout} for space, and drops after that.
+ */
+@Component
+public class AuditLogWriter {
+
+    public enum Overflow {
+        DROP, BLOCK
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT = "insert into audit_log " +
+            "(occurred_at, actor_id, actor, action, user_id, changes) values (?, ?, ?, ?, ?, ?)";
+    private static final String SYSTEM_ACTOR = "system";
+    private static final int USER_ID_COLUMN = 4;
+    private static final long RETRY_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final RingBuffer<Entry> buffer;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Overflow overflow;
+    private final long blockTimeoutNanos;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter rejected;
+    private final Counter writeFailures;
+    private final Timer blocked;
+    private final Timer flushes;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                          ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                          @Value("${app.audit.buffer-capacity:8192}") int bufferCapacity,
+                          @Value("${app.audit.overflow:DROP}") Overflow overflow,
+                          @Value("${app.audit.block-timeout:PT1S}") Duration blockTimeout,
+                          @Value("${app.audit.batch-size:500}") int batchSize,
+                          @Value("${app.audit.flush-interval:PT0.2S}") Duration flushInterval) {
+        this.buffer = new RingBuffer<>(bufferCapacity);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.overflow = overflow;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+
+        this.written = Counter.builder("app.audit.entries").tag("outcome", "written").register(meterRegistry);
+        this.dropped = Counter.builder("app.audit.entries").tag("outcome", "dropped").register(meterRegistry);
+        this.rejected = Counter.builder("app.audit.entries").tag("outcome", "rejected").register(meterRegistry);
+        this.writeFailures = Counter.builder("app.audit.write.failures").register(meterRegistry);
+        this.blocked = Timer.builder("app.audit.enqueue.blocked").register(meterRegistry);
+        this.flushes = Timer.builder("app.audit.flush").register(meterRegistry);
+        Gauge.builder("app.audit.buffer.size", buffer, RingBuffer::size).register(meterRegistry);
+
+        this.writer = new Thread(this::run, "audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isEmptyUpdate()) {
+            return;
+        }
+        Actor actor = currentActor();
+        enqueue(new Entry(Instant.now(), actor.id(), actor.name(), AuditEntry.Action.valueOf(event.type().name()),
+                event.userId(), event.changes()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUsersImported(UsersImportedEvent event) {
+        Actor actor = currentActor();
+        Instant now = Instant.now();
+        for (UsersImportedEvent.ImportedUser user : event.users()) {
+            enqueue(new Entry(now, actor.id(), actor.name(), AuditEntry.Action.CREATED, user.userId(), user.changes()));
+        }
+    }
+
+    private static Actor currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt) {
+            Number uid = jwt.getClaim(TokenService.CLAIM_USER_ID);
+            return new Actor(uid != null ? uid.longValue() : null, jwt.getSubject());
+        }
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return new Actor(principal.getId(), principal.getUsername());
+        }
+        return new Actor(null, SYSTEM_ACTOR);
+    }
+
+    private void enqueue(Entry entry) {
+        if (buffer.offer(entry)) {
+            return;
+        }
+        if (overflow == Overflow.BLOCK) {
+            long start = System.nanoTime();
+            boolean accepted = buffer.offer(entry, blockTimeoutNanos);
+            blocked.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (accepted) {
+                return;
+            }
+        }
+        dropped.increment();
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(flushIntervalNanos);
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            try {
+                rows.add(new Object[]{Timestamp.from(entry.occurredAt()), entry.actorId(), entry.actor(),
+                        entry.action().name(), entry.userId(), objectMapper.writeValueAsString(entry.changes())});
+            } catch (JsonProcessingException e) {
+                reject(entry.userId(), e);
+            }
+        }
+        if (!rows.isEmpty()) {
+            insert(rows);
+        }
+    }
+
+    /**
+     * Retries failures that go away by themselves (lost connections, timeouts, lock
+     * conflicts) until the batch is stored, so that a database outage is absorbed by the
+     * buffer and its overflow policy instead of losing entries already taken from it. Any
+     * other failure is caused by the entries, so the batch is split until the offending
+     * ones are isolated and skipped. Each attempt is a transaction of its own, so a failed
+     * batch leaves nothing behind to be written twice.
+     */
+    private void insert(List<Object[]> rows) {
+        while (true) {
+            long start = System.nanoTime();
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, rows));
+                flushes.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                written.increment(rows.size());
+                return;
+            } catch (RuntimeException e) {
+                writeFailures.increment();
+                if (!running) {
+                    log.error("Discarding {} audit entries on shutdown: {}", rows.size(), e.getMessage());
+                    return;
+                }
+                if (!isTransient(e)) {
+                    if (rows.size() == 1) {
+                        reject(rows.get(0)[USER_ID_COLUMN], e);
+                    } else {
+                        int half = rows.size() / 2;
+                        insert(rows.subList(0, half));
+                        insert(rows.subList(half, rows.size()));
+                    }
+                    return;
+                }
+                log.warn("Failed to write {} audit entries, retrying: {}", rows.size(), e.getMessage());
+                LockSupport.parkNanos(RETRY_BACKOFF_NANOS);
+            }
+        }
+    }
+
+    private void reject(Object userId, Exception e) {
+        rejected.increment();
+        log.error("Skipping audit entry for user {}: {}", userId, e.getMessage());
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private record Actor(Long id, String name) {
+    }
+
+    private record Entry(Instant occurredAt, Long actorId, String actor, AuditEntry.Action action,
+                         Long userId, Map<String, UserChangedEvent.FieldChange> changes) {
+    }
+}
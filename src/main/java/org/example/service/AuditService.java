@@ -0,0 +1,7 @@
+package org.example.service;
+
+import org.example.dto.AuditPage;
+
+public interface AuditService {
+    AuditPage findEntries(Long userId, String cursor, int size);
+}
@@ -0,0 +1,61 @@
+package org.example.service;
+
+import org.example.dto.AuditEntryView;
+import org.example.dto.AuditPage;
+import org.example.repository.AuditEntryRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+public class AuditServiceImpl implements AuditService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String CURSOR_PREFIX = "a:";
+
+    private final AuditEntryRepository auditEntryRepository;
+
+    public AuditServiceImpl(AuditEntryRepository auditEntryRepository) {
+        this.auditEntryRepository = auditEntryRepository;
+    }
+
+    @Override
+    public AuditPage findEntries(Long userId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long beforeId = cursor != null ? decodeCursor(cursor) : Long.MAX_VALUE;
+        List<AuditEntryView> entries = auditEntryRepository
+                .findPageBefore(beforeId, userId, PageRequest.of(0, pageSize + 1))
+                .stream()
+                .map(AuditEntryView::from)
+                .toList();
+
+        String nextCursor = null;
+        if (entries.size() > pageSize) {
+            entries = entries.subList(0, pageSize);
+            nextCursor = encodeCursor(entries.get(pageSize - 1).id());
+        }
+        return new AuditPage(entries, nextCursor);
+    }
+
+    private static String encodeCursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new RuntimeException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+}
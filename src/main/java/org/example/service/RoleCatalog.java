@@ -0,0 +1,78 @@
+package org.example.service;
+
+import org.example.model.Role;
+import org.example.repository.RoleRepository;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class RoleCatalog {
+
+    private final RoleRepository roleRepository;
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public RoleCatalog(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void refresh() {
+        snapshot = Snapshot.of(roleRepository.findAll());
+        version.incrementAndGet();
+    }
+
+    public Role findByName(String name) {
+        return snapshot.byName().get(name);
+    }
+
+    public Role findById(Long id) {
+        return snapshot.byId().get(id);
+    }
+
+    public List<Role> findAll() {
+        return snapshot.ordered();
+    }
+
+    public synchronized void putAll(Collection<Role> roles) {
+        if (roles.isEmpty()) {
+            return;
+        }
+        Map<Long, Role> merged = new HashMap<>(snapshot.byId());
+        for (Role role : roles) {
+            merged.put(role.getId(), role);
+        }
+        snapshot = Snapshot.of(merged.values());
+        version.incrementAndGet();
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    private record Snapshot(Map<String, Role> byName, Map<Long, Role> byId, List<Role> ordered) {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), List.of());
+
+        static Snapshot of(Collection<Role> roles) {
+            Map<String, Role> byName = new HashMap<>();
+            Map<Long, Role> byId = new HashMap<>();
+            for (Role role : roles) {
+                byName.put(role.getName(), role);
+                byId.put(role.getId(), role);
+            }
+            List<Role> ordered = roles.stream()
+                    .sorted(Comparator.comparing(Role::getId))
+                    .toList();
+            return new Snapshot(Map.copyOf(byName), Map.copyOf(byId), ordered);
+        }
+    }
+}
@@ -8,4 +8,6 @@ public interface RoleService {
     List<Role> findAllRoles();
     Role findRoleByName(String name);
     Set<Role> findRolesByNames(Set<String> roleNames);
+    Role saveRole(Role role);
+    long getRolesRevision();
 }
\ No newline at end of file
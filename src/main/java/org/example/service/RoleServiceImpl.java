@@ -5,7 +5,10 @@ import org.example.repository.RoleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -15,29 +18,76 @@ import java.util.Set;
 public class RoleServiceImpl implements RoleService {
 
     private final RoleRepository roleRepository;
+    private final RoleCatalog roleCatalog;
 
     @Autowired
-    public RoleServiceImpl(RoleRepository roleRepository) {
+    public RoleServiceImpl(RoleRepository roleRepository, RoleCatalog roleCatalog) {
         this.roleRepository = roleRepository;
+        this.roleCatalog = roleCatalog;
     }
 
     @Override
     public List<Role> findAllRoles() {
-        return roleRepository.findAll();
+        List<Role> roles = roleCatalog.findAll();
+        if (roles.isEmpty()) {
+            roles = roleRepository.findAll();
+            roleCatalog.putAll(roles);
+        }
+        return roles;
     }
 
     @Override
     public Role findRoleByName(String name) {
-        return roleRepository.findByName(name)
+        Role role = roleCatalog.findByName(name);
+        if (role != null) {
+            return role;
+        }
+        role = roleRepository.findByName(name)
                 .orElseThrow(() -> new RuntimeException("Role not found: " + name));
+        roleCatalog.putAll(List.of(role));
+        return role;
     }
 
     @Override
     public Set<Role> findRolesByNames(Set<String> roleNames) {
         Set<Role> roles = new HashSet<>();
+        List<String> missing = new ArrayList<>();
         for (String roleName : roleNames) {
-            roleRepository.findByName(roleName).ifPresent(roles::add);
+            Role role = roleCatalog.findByName(roleName);
+            if (role != null) {
+                roles.add(role);
+            } else {
+                missing.add(roleName);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<Role> loaded = roleRepository.findByNameIn(missing);
+            roleCatalog.putAll(loaded);
+            roles.addAll(loaded);
         }
         return roles;
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional
+    public Role saveRole(Role role) {
+        Role saved = roleRepository.save(role);
+        // a rollback must not leave the role visible to other requests
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    roleCatalog.putAll(List.of(saved));
+                }
+            });
+        } else {
+            roleCatalog.putAll(List.of(saved));
+        }
+        return saved;
+    }
+
+    @Override
+    public long getRolesRevision() {
+        return roleCatalog.version();
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.service;
+
+import org.example.dto.TokenResponse;
+import org.example.dto.UserView;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+public interface TokenService {
+    String CLAIM_USER_ID = "uid";
+    String CLAIM_FIRST_NAME = "given_name";
+    String CLAIM_LAST_NAME = "family_name";
+    String CLAIM_AGE = "age";
+    String CLAIM_ROLES = "roles";
+
+    TokenResponse issueTokens(Long userId);
+    TokenResponse refreshTokens(String refreshToken);
+    void revokeRefreshToken(String refreshToken);
+    UserView toUserView(Jwt accessToken);
+    void purgeExpiredTokens();
+}
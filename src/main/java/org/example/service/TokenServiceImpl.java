@@ -0,0 +1,162 @@
+package org.example.service;
+
+import org.example.dto.RoleView;
+import org.example.dto.TokenResponse;
+import org.example.dto.UserView;
+import org.example.event.UserChangedEvent;
+import org.example.model.RefreshToken;
+import org.example.repository.RefreshTokenRepository;
+import org.example.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+@Service
+public class TokenServiceImpl implements TokenService {
+
+    private static final String TOKEN_TYPE = "Bearer";
+    private static final JwsHeader HEADER = JwsHeader.with(MacAlgorithm.HS256).build();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final String CHANGED_PASSWORD = "password";
+    private static final String CHANGED_ROLES = "roles";
+
+    private final JwtEncoder jwtEncoder;
+    private final UserRepository userRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration accessTokenTtl;
+    private final Duration refreshTokenTtl;
+    private final SecureRandom random = new SecureRandom();
+
+    public TokenServiceImpl(JwtEncoder jwtEncoder,
+                            UserRepository userRepository,
+                            RefreshTokenRepository refreshTokenRepository,
+                            @Value("${app.security.token.access-ttl:PT15M}") Duration accessTokenTtl,
+                            @Value("${app.security.token.refresh-ttl:P14D}") Duration refreshTokenTtl) {
+        this.jwtEncoder = jwtEncoder;
+        this.userRepository = userRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.accessTokenTtl = accessTokenTtl;
+        this.refreshTokenTtl = refreshTokenTtl;
+    }
+
+    @Override
+    @Transactional
+    public TokenResponse issueTokens(Long userId) {
+        UserView user = userRepository.findViewById(userId)
+                .orElseThrow(() -> new BadCredentialsException("User not found with id: " + userId));
+        return issue(user);
+    }
+
+    @Override
+    @Transactional
+    public TokenResponse refreshTokens(String refreshToken) {
+        String hash = hash(refreshToken);
+        RefreshToken stored = refreshTokenRepository.findById(hash)
+                .filter(token -> token.getExpiresAt().isAfter(Instant.now()))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        // single use: a concurrent refresh with the same token loses the delete
+        if (refreshTokenRepository.deleteByHash(hash) == 0) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        UserView user = userRepository.findViewById(stored.getUserId())
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        return issue(user);
+    }
+
+    @Override
+    @Transactional
+    public void revokeRefreshToken(String refreshToken) {
+        refreshTokenRepository.deleteByHash(hash(refreshToken));
+    }
+
+    @Override
+    public UserView toUserView(Jwt accessToken) {
+        Number id = accessToken.getClaim(CLAIM_USER_ID);
+        Number age = accessToken.getClaim(CLAIM_AGE);
+        List<String> roles = accessToken.getClaimAsStringList(CLAIM_ROLES);
+        return new UserView(id.longValue(),
+                accessToken.getClaimAsString(CLAIM_FIRST_NAME),
+                accessToken.getClaimAsString(CLAIM_LAST_NAME),
+                age != null ? age.intValue() : null,
+                accessToken.getSubject(),
+                roles != null ? roles.stream().map(RoleView::new).toList() : List.of());
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.security.token.purge-interval:PT1H}")
+    public void purgeExpiredTokens() {
+        refreshTokenRepository.deleteExpired(Instant.now());
+    }
+
+    /**
+     * A refresh token must not outlive the credentials or the roles it was issued for;
+     * access tokens carry the roles and simply expire.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() == UserChangedEvent.Type.DELETED
+                || event.changes().containsKey(CHANGED_PASSWORD)
+                || event.changes().containsKey(CHANGED_ROLES)) {
+            refreshTokenRepository.deleteByUserId(event.userId());
+        }
+    }
+
+    private TokenResponse issue(UserView user) {
+        Instant now = Instant.now();
+        JwtClaimsSet.Builder claims = JwtClaimsSet.builder()
+                .subject(user.email())
+                .issuedAt(now)
+                .expiresAt(now.plus(accessTokenTtl))
+                .claim(CLAIM_USER_ID, user.id())
+                .claim(CLAIM_ROLES, user.roles().stream().map(RoleView::name).toList());
+        if (user.firstName() != null) {
+            claims.claim(CLAIM_FIRST_NAME, user.firstName());
+        }
+        if (user.lastName() != null) {
+            claims.claim(CLAIM_LAST_NAME, user.lastName());
+        }
+        if (user.age() != null) {
+            claims.claim(CLAIM_AGE, user.age());
+        }
+        String accessToken = jwtEncoder.encode(JwtEncoderParameters.from(HEADER, claims.build())).getTokenValue();
+
+        byte[] secret = new byte[32];
+        random.nextBytes(secret);
+        String refreshToken = ENCODER.encodeToString(secret);
+        refreshTokenRepository.save(new RefreshToken(hash(refreshToken), user.id(), now.plus(refreshTokenTtl)));
+
+        return new TokenResponse(accessToken, refreshToken, TOKEN_TYPE, accessTokenTtl.toSeconds());
+    }
+
+    private static String hash(String refreshToken) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            throw new BadCredentialsException("Refresh token is required");
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ENCODER.encodeToString(digest.digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.service;
+
+import org.example.dto.UserChanges;
+
+public interface UserChangeService {
+    UserChanges findChangesSince(long since, int limit);
+    long currentSeq();
+    void compact();
+}
@@ -0,0 +1,146 @@
+package org.example.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.dto.UserChanges;
+import org.example.dto.UserView;
+import org.example.event.UserChangedEvent;
+import org.example.event.UsersImportedEvent;
+import org.example.model.UserChange;
+import org.example.model.UserChangeCounter;
+import org.example.repository.UserChangeCounterRepository;
+import org.example.repository.UserChangeRepository;
+import org.example.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class UserChangeServiceImpl implements UserChangeService {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final UserChangeRepository userChangeRepository;
+    private final UserChangeCounterRepository userChangeCounterRepository;
+    private final UserRepository userRepository;
+    private final Duration tombstoneRetention;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public UserChangeServiceImpl(UserChangeRepository userChangeRepository,
+                                 UserChangeCounterRepository userChangeCounterRepository,
+                                 UserRepository userRepository,
+                                 @Value("${app.user-changes.tombstone-retention:P7D}") Duration tombstoneRetention) {
+        this.userChangeRepository = userChangeRepository;
+        this.userChangeCounterRepository = userChangeCounterRepository;
+        this.userRepository = userRepository;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isEmptyUpdate()) {
+            return;
+        }
+        UserChange.Type type = event.type() == UserChangedEvent.Type.DELETED
+                ? UserChange.Type.DELETE
+                : UserChange.Type.UPSERT;
+        userChangeRepository.save(new UserChange(reserve(1), event.userId(), type, Instant.now()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onUsersImported(UsersImportedEvent event) {
+        List<Long> userIds = event.userIds();
+        long first = reserve(userIds.size());
+        Instant now = Instant.now();
+        List<UserChange> changes = new ArrayList<>(userIds.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            changes.add(new UserChange(first + i, userIds.get(i), UserChange.Type.UPSERT, now));
+        }
+        userChangeRepository.saveAll(changes);
+    }
+
+    /**
+     * Positions come from a counter row that stays locked until the writing transaction
+     * commits, so they are handed out in commit order: a client that has seen a position
+     * has seen every committed change below it, and nothing below it can commit later. The
+     * rest of the transaction is flushed first, so the lock is held only for the commit.
+     */
+    private long reserve(int count) {
+        entityManager.flush();
+        UserChangeCounter counter = userChangeCounterRepository.findForUpdate(UserChangeCounter.ID)
+                .orElseGet(() -> userChangeCounterRepository.save(
+                        new UserChangeCounter(UserChangeCounter.ID, userChangeRepository.findMaxSeq())));
+        return counter.advance(count);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserChanges findChangesSince(long since, int limit) {
+        if (since < userChangeCounterRepository.findHorizon(UserChangeCounter.ID).orElse(0L)) {
+            return new UserChanges(true, currentSeq(), false, List.of(), List.of());
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<UserChange> changes = userChangeRepository.findAfter(since, PageRequest.of(0, pageSize));
+        if (changes.isEmpty()) {
+            return new UserChanges(false, since, false, List.of(), List.of());
+        }
+
+        Map<Long, UserChange.Type> latestByUser = new LinkedHashMap<>();
+        for (UserChange change : changes) {
+            latestByUser.put(change.getUserId(), change.getType());
+        }
+        List<Long> upsertIds = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        latestByUser.forEach((userId, type) -> (type == UserChange.Type.DELETE ? deletes : upsertIds).add(userId));
+
+        List<UserView> upserts = upsertIds.isEmpty() ? List.of() : userRepository.findViewsByIds(upsertIds);
+        if (upserts.size() < upsertIds.size()) {
+            Set<Long> found = new HashSet<>();
+            upserts.forEach(view -> found.add(view.id()));
+            upsertIds.stream().filter(id -> !found.contains(id)).forEach(deletes::add);
+        }
+
+        long latest = changes.get(changes.size() - 1).getSeq();
+        return new UserChanges(false, latest, changes.size() == pageSize, upserts, deletes);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long currentSeq() {
+        return userChangeCounterRepository.findSeq(UserChangeCounter.ID).orElse(0L);
+    }
+
+    /**
+     * Clients asking for changes since a position below the horizon are told to reload
+     * instead. The horizon is raised in the transaction that deletes the tombstones, so no
+     * instance can see them gone while still answering from below it.
+     */
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.user-changes.compaction-interval:PT10M}")
+    public void compact() {
+        userChangeRepository.deleteSuperseded();
+        long expired = userChangeRepository.findLastExpired(UserChange.Type.DELETE,
+                Instant.now().minus(tombstoneRetention));
+        if (expired > 0) {
+            userChangeRepository.deleteUpTo(UserChange.Type.DELETE, expired);
+            userChangeCounterRepository.raiseHorizon(UserChangeCounter.ID, expired);
+        }
+    }
+}
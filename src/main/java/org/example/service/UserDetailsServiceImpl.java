@@ -1,29 +1,40 @@
 package org.example.service;
 
+import org.example.model.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserService userService;
+    private final PrincipalCache principalCache;
 
     @Autowired
-    public UserDetailsServiceImpl(UserService userService) {
+    public UserDetailsServiceImpl(UserService userService, PrincipalCache principalCache) {
         this.userService = userService;
+        this.principalCache = principalCache;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         try {
-            return userService.findUserByEmail(email);
+            return principalCache.get(email, key -> UserPrincipal.from(userService.findUserByEmail(key)));
         } catch (RuntimeException e) {
             throw new UsernameNotFoundException("User not found with email: " + email);
         }
     }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserPrincipal principal = (UserPrincipal) user;
+        userService.updatePasswordHash(principal.getId(), newPassword);
+        return new UserPrincipal(principal.getId(), principal.getUsername(), newPassword,
+                principal.getRoleMask(), principal.isAccountNonExpired(),
+                principal.isAccountNonLocked(), principal.isCredentialsNonExpired(), principal.isEnabled());
+    }
 }
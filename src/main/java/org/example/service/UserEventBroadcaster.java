@@ -0,0 +1,272 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.event.UserChangedEvent;
+import org.example.event.UsersImportedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed user changes out to admin dashboards over Server-Sent Events.
+ * Idle connections only hold an async servlet request. Events are serialized once and
+ * written with non-blocking servlet I/O from a bounded per-client buffer, so a client
+ * that stops reading never holds a thread: its frames stay in the buffer until the
+ * container reports the connection writable again, and once the buffer overflows the
+ * client is disconnected so that it reconnects and catches up through the change feed.
+ */
+@Component
+public class UserEventBroadcaster implements MeterBinder {
+
+    private static final byte[] HEARTBEAT = ":heartbeat\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final ObjectMapper objectMapper;
+    private final ExecutorService dispatcher;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int maxClients;
+
+    public UserEventBroadcaster(ObjectMapper objectMapper,
+                                @Value("${app.sse.timeout:PT30M}") Duration timeout,
+                                @Value("${app.sse.buffer-size:256}") int bufferSize,
+                                @Value("${app.sse.max-clients:5000}") int maxClients,
+                                @Value("${app.sse.dispatch-threads:2}") int dispatchThreads) {
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeout.toMillis();
+        this.bufferSize = bufferSize;
+        this.maxClients = maxClients;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "user-events-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Puts the request in async mode and keeps it as an event stream. Returns
+     * {@code false}, leaving the response untouched, when the subscriber limit has been
+     * reached.
+     */
+    public boolean subscribe(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (subscribers.incrementAndGet() > maxClients) {
+            subscribers.decrementAndGet();
+            return false;
+        }
+        Client client = new Client(new ArrayBlockingQueue<>(bufferSize));
+        clients.add(client);
+        try {
+            response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            AsyncContext context = request.startAsync(request, response);
+            context.setTimeout(timeoutMillis);
+            context.addListener(client);
+            client.start(context, response.getOutputStream());
+        } catch (IOException | RuntimeException e) {
+            remove(client);
+            throw e;
+        }
+        return true;
+    }
+
+    public int subscriberCount() {
+        return subscribers.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.sse.subscribers", subscribers, AtomicInteger::get).register(registry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isEmptyUpdate()) {
+            return;
+        }
+        broadcast(event(Map.of("type", event.type().name(), "userId", event.userId())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersImported(UsersImportedEvent event) {
+        broadcast(event(Map.of("type", UserChangedEvent.Type.CREATED.name(), "userIds", event.userIds())));
+    }
+
+    @Scheduled(fixedRateString = "${app.sse.heartbeat-interval:PT25S}")
+    public void heartbeat() {
+        broadcast(HEARTBEAT);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        clients.forEach(Client::close);
+    }
+
+    private byte[] event(Object payload) {
+        try {
+            return ("event:users\ndata:" + objectMapper.writeValueAsString(List.of(payload)) + "\n\n")
+                    .getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Cannot serialize user event", e);
+        }
+    }
+
+    private void broadcast(byte[] frame) {
+        for (Client client : clients) {
+            if (client.buffer.offer(frame)) {
+                schedule(client);
+            } else {
+                client.close();
+            }
+        }
+    }
+
+    private void schedule(Client client) {
+        if (client.scheduled.compareAndSet(false, true)) {
+            dispatcher.execute(() -> {
+                client.scheduled.set(false);
+                client.drain();
+            });
+        }
+    }
+
+    private void remove(Client client) {
+        if (clients.remove(client)) {
+            subscribers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Writes happen under the client's monitor, from the dispatch pool or from the
+     * container's {@code onWritePossible}, and only while {@code isReady()} holds, so
+     * holding the monitor never waits on the network.
+     */
+    private final class Client implements WriteListener, AsyncListener {
+
+        private final BlockingQueue<byte[]> buffer;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private AsyncContext context;
+        private ServletOutputStream out;
+        // the first flush commits the headers, so the browser sees the stream open
+        private boolean pendingFlush = true;
+        private boolean closed;
+
+        private Client(BlockingQueue<byte[]> buffer) {
+            this.buffer = buffer;
+        }
+
+        private synchronized void start(AsyncContext context, ServletOutputStream out) {
+            this.context = context;
+            this.out = out;
+            out.setWriteListener(this);
+        }
+
+        private synchronized void drain() {
+            if (closed || out == null) {
+                return;
+            }
+            try {
+                // every write and flush is followed by isReady(), which asks the container
+                // for onWritePossible when it cannot take more
+                while (out.isReady()) {
+                    byte[] frame = buffer.poll();
+                    if (frame != null) {
+                        out.write(frame);
+                        pendingFlush = true;
+                    } else if (pendingFlush) {
+                        pendingFlush = false;
+                        out.flush();
+                    } else {
+                        return;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        private synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.clear();
+            remove(this);
+            if (context != null) {
+                try {
+                    context.complete();
+                } catch (IllegalStateException e) {
+                    // already completed by the container
+                }
+            }
+        }
+
+        @Override
+        public void onWritePossible() {
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            close();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            synchronized (this) {
+                closed = true;
+                buffer.clear();
+            }
+            remove(this);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
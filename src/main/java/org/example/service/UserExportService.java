@@ -0,0 +1,9 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface UserExportService {
+    void exportNdjson(OutputStream output) throws IOException;
+    void exportCsv(OutputStream output) throws IOException;
+}
@@ -0,0 +1,121 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.UserExportRow;
+import org.example.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+@Transactional(readOnly = true)
+public class UserExportServiceImpl implements UserExportService {
+
+    private static final String CSV_HEADER = "id,firstName,lastName,age,email,roles";
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    public UserExportServiceImpl(UserRepository userRepository, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void exportNdjson(OutputStream output) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            forEachUser(user -> {
+                generator.writeStartObject();
+                generator.writeNumberField("id", user.id());
+                generator.writeStringField("firstName", user.firstName());
+                generator.writeStringField("lastName", user.lastName());
+                generator.writeNumberField("age", user.age());
+                generator.writeStringField("email", user.email());
+                generator.writeArrayFieldStart("roles");
+                for (String role : user.roles()) {
+                    generator.writeString(role);
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    @Override
+    public void exportCsv(OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        forEachUser(user -> {
+            writer.write(String.valueOf(user.id()));
+            writer.write(',');
+            writer.write(csvField(user.firstName()));
+            writer.write(',');
+            writer.write(csvField(user.lastName()));
+            writer.write(',');
+            writer.write(String.valueOf(user.age()));
+            writer.write(',');
+            writer.write(csvField(user.email()));
+            writer.write(',');
+            writer.write(csvField(String.join("|", user.roles())));
+            writer.write('\n');
+        });
+        writer.flush();
+    }
+
+    private void forEachUser(UserWriter userWriter) throws IOException {
+        try (Stream<UserExportRow> rows = userRepository.streamExportRows()) {
+            Iterator<UserExportRow> iterator = rows.iterator();
+            ExportedUser current = null;
+            while (iterator.hasNext()) {
+                UserExportRow row = iterator.next();
+                if (current == null || !current.id().equals(row.id())) {
+                    if (current != null) {
+                        userWriter.write(current);
+                    }
+                    current = new ExportedUser(row.id(), row.firstName(), row.lastName(), row.age(),
+                            row.email(), new ArrayList<>(2));
+                }
+                if (row.roleName() != null) {
+                    current.roles().add(row.roleName());
+                }
+            }
+            if (current != null) {
+                userWriter.write(current);
+            }
+        }
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private record ExportedUser(Long id, String firstName, String lastName, Integer age, String email,
+                                List<String> roles) {
+    }
+
+    @FunctionalInterface
+    private interface UserWriter {
+        void write(ExportedUser user) throws IOException;
+    }
+}
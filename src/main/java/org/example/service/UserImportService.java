@@ -0,0 +1,10 @@
+package org.example.service;
+
+import org.example.dto.ImportResult;
+
+import java.io.InputStream;
+
+public interface UserImportService {
+    ImportResult importNdjson(InputStream input);
+    ImportResult importCsv(InputStream input);
+}
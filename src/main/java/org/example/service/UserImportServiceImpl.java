@@ -0,0 +1,386 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.config.BoundedPasswordEncoder;
+import org.example.dto.CreateUserRequest;
+import org.example.dto.ImportError;
+import org.example.dto.ImportResult;
+import org.example.event.UsersImportedEvent;
+import org.example.exception.PasswordHashingOverloadedException;
+import org.example.model.Role;
+import org.example.model.User;
+import org.example.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final long HASH_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final TypeReference<Map<String, Object>> RECORD_TYPE = new TypeReference<>() {};
+
+    private final UserRepository userRepository;
+    private final RoleService roleService;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final int hashWindow;
+    private final int hashQueueReserve;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public UserImportServiceImpl(UserRepository userRepository,
+                                 RoleService roleService,
+                                 BoundedPasswordEncoder passwordEncoder,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 @Value("${app.import.chunk-size:500}") int chunkSize,
+                                 @Value("${app.import.max-reported-errors:1000}") int maxReportedErrors,
+                                 @Value("${app.import.hash-window:0}") int hashWindow,
+                                 @Value("${app.import.hash-queue-reserve:64}") int hashQueueReserve) {
+        this.userRepository = userRepository;
+        this.roleService = roleService;
+        this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.hashWindow = hashWindow;
+        this.hashQueueReserve = hashQueueReserve;
+    }
+
+    @Override
+    public ImportResult importNdjson(InputStream input) {
+        ImportRun run = new ImportRun();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    run.add(lineNumber, objectMapper.readValue(line, RECORD_TYPE));
+                } catch (JsonProcessingException e) {
+                    run.fail(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read import file", e);
+        }
+        return run.finish();
+    }
+
+    @Override
+    public ImportResult importCsv(InputStream input) {
+        ImportRun run = new ImportRun();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                return run.finish();
+            }
+            List<String> header = parseCsvLine(headerLine);
+
+            String line;
+            long lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> values = parseCsvLine(line);
+                if (values.size() != header.size()) {
+                    run.fail(lineNumber, null, "Expected " + header.size() + " columns but found " + values.size());
+                    continue;
+                }
+                Map<String, Object> data = new HashMap<>();
+                for (int i = 0; i < header.size(); i++) {
+                    String column = header.get(i).trim();
+                    String value = values.get(i);
+                    if ("roles".equals(column)) {
+                        data.put(column, value.isBlank() ? null : Arrays.asList(value.split("\\|")));
+                    } else {
+                        data.put(column, value.isEmpty() ? null : value);
+                    }
+                }
+                run.add(lineNumber, data);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read import file", e);
+        }
+        return run.finish();
+    }
+
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private record PendingRow(long line, Map<String, Object> data) {
+    }
+
+    private record ValidRow(long line, User user, String rawPassword) {
+    }
+
+    private class ImportRun {
+
+        private final List<PendingRow> pending = new ArrayList<>(chunkSize);
+        private final Set<String> seenEmails = new HashSet<>();
+        private final List<ImportError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        void add(long line, Map<String, Object> data) {
+            pending.add(new PendingRow(line, data));
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void fail(long line, String email, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportError(line, email, message));
+            }
+        }
+
+        ImportResult finish() {
+            flush();
+            return new ImportResult(imported, failed, List.copyOf(errors));
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<ValidRow> rows = new ArrayList<>(pending.size());
+            for (PendingRow row : pending) {
+                try {
+                    ValidRow valid = toRow(row.line(), row.data());
+                    if (!seenEmails.add(valid.user().getEmail())) {
+                        fail(row.line(), valid.user().getEmail(), "Duplicate email in file");
+                        continue;
+                    }
+                    rows.add(valid);
+                } catch (RuntimeException e) {
+                    fail(row.line(), emailOf(row.data()), e.getMessage());
+                }
+            }
+            pending.clear();
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            Set<String> existing = new HashSet<>(userRepository.findExistingEmails(
+                    rows.stream().map(row -> row.user().getEmail()).toList()));
+            List<ValidRow> fresh = new ArrayList<>(rows.size());
+            for (ValidRow row : rows) {
+                if (existing.contains(row.user().getEmail())) {
+                    fail(row.line(), row.user().getEmail(), "User with email " + row.user().getEmail() + " already exists");
+                } else {
+                    fresh.add(row);
+                }
+            }
+
+            List<ValidRow> hashed = hashPasswords(fresh);
+            if (hashed.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(hashed));
+                imported += hashed.size();
+            } catch (RuntimeException chunkFailure) {
+                for (ValidRow row : hashed) {
+                    try {
+                        row.user().setId(null);
+                        transactionTemplate.executeWithoutResult(status -> persist(List.of(row)));
+                        imported++;
+                    } catch (RuntimeException e) {
+                        fail(row.line(), row.user().getEmail(), e.getMessage());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Hashes in windows of at most one task per hashing thread, and only while the
+         * shared queue keeps {@code hash-queue-reserve} slots free, so that logins arriving
+         * during an import wait behind at most one window instead of the whole chunk. A row
+         * whose hash fails is reported and left out; the rest are returned.
+         */
+        private List<ValidRow> hashPasswords(List<ValidRow> rows) {
+            List<ValidRow> hashed = new ArrayList<>(rows.size());
+            int next = 0;
+            while (next < rows.size()) {
+                int window = Math.min(Math.min(rows.size() - next, hashWindow()),
+                        passwordEncoder.getQueueRemainingCapacity() - hashQueueReserve);
+                List<CompletableFuture<String>> hashes = new ArrayList<>(Math.max(window, 0));
+                try {
+                    for (int i = 0; i < window; i++) {
+                        hashes.add(passwordEncoder.encodeAsync(rows.get(next + i).rawPassword()));
+                    }
+                } catch (PasswordHashingOverloadedException e) {
+                    // logins took the free slots after the check; hash what was accepted
+                }
+                if (hashes.isEmpty()) {
+                    LockSupport.parkNanos(HASH_BACKOFF_NANOS);
+                    continue;
+                }
+                for (CompletableFuture<String> hash : hashes) {
+                    ValidRow row = rows.get(next++);
+                    try {
+                        row.user().setPassword(hash.join());
+                        hashed.add(row);
+                    } catch (CompletionException | CancellationException e) {
+                        Throwable cause = e.getCause() != null ? e.getCause() : e;
+                        fail(row.line(), row.user().getEmail(), "Password hashing failed: " + cause.getMessage());
+                    }
+                }
+            }
+            return hashed;
+        }
+
+        private void persist(List<ValidRow> rows) {
+            for (ValidRow row : rows) {
+                entityManager.persist(row.user());
+            }
+            entityManager.flush();
+            eventPublisher.publishEvent(new UsersImportedEvent(rows.stream()
+                    .map(row -> new UsersImportedEvent.ImportedUser(row.user().getId(), row.user().getEmail(),
+                            UserSnapshot.created(row.user())))
+                    .toList()));
+        }
+    }
+
+    /**
+     * Holds a row to the constraints of {@link CreateUserRequest}, the same ones the admin
+     * API applies to a single user, and additionally requires an age: a file that leaves
+     * it out is more likely malformed than a user without one.
+     */
+    private ValidRow toRow(long line, Map<String, Object> data) {
+        CreateUserRequest request = new CreateUserRequest(stringValue(data, "firstName"),
+                stringValue(data, "lastName"), ageValue(data), stringValue(data, "email"),
+                stringValue(data, "password"), roleNames(data.get("roles")));
+        Set<ConstraintViolation<CreateUserRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new RuntimeException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        if (request.age() == null) {
+            throw new RuntimeException("age: Age is required");
+        }
+
+        User user = new User();
+        user.setFirstName(request.firstName());
+        user.setLastName(request.lastName());
+        user.setAge(request.age());
+        user.setEmail(request.email());
+        user.setRoles(resolveRoles(request.roles()));
+        return new ValidRow(line, user, request.password());
+    }
+
+    private Set<Role> resolveRoles(Set<String> roleNames) {
+        if (roleNames != null) {
+            return roleService.findRolesByNames(roleNames);
+        }
+        return Set.of(roleService.findRoleByName("USER"));
+    }
+
+    private int hashWindow() {
+        return hashWindow > 0 ? hashWindow : passwordEncoder.getPoolSize();
+    }
+
+    private static String stringValue(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    private static Integer ageValue(Map<String, Object> data) {
+        Object age = data.get("age");
+        if (age == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(age.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid age: " + age);
+        }
+    }
+
+    private static Set<String> roleNames(Object roles) {
+        if (roles instanceof List<?> names && !names.isEmpty()) {
+            Set<String> roleNames = new HashSet<>();
+            names.forEach(name -> roleNames.add(name.toString()));
+            return roleNames;
+        }
+        return null;
+    }
+
+    private static String emailOf(Map<String, Object> data) {
+        return stringValue(data, "email");
+    }
+}
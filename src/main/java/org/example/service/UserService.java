@@ -1,17 +1,28 @@
 package org.example.service;
 
+import org.example.dto.CreateUserRequest;
+import org.example.dto.UpdateUserRequest;
+import org.example.dto.UserPage;
+import org.example.dto.UserSearchPage;
+import org.example.dto.UserView;
 import org.example.model.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
 import java.util.List;
-import java.util.Map;
 
 public interface UserService extends UserDetailsService {
     List<User> findAllUsers();
+    UserPage findUsersPage(String cursor, int size, boolean descending,
+                           String emailPrefix, String lastName, String role);
     User findUserById(Long id);
+    UserView findUserViewById(Long id, long version);
+    UserSearchPage searchUsers(String query, int page, int size);
+    long findUserVersion(Long id);
+    long getUsersRevision();
     User findUserByEmail(String email);
-    User createUserFromMap(Map<String, Object> userData);
-    User updateUserFromMap(Long id, Map<String, Object> userData);
+    UserView createUser(CreateUserRequest request);
+    UserView updateUser(Long id, UpdateUserRequest request);
+    void updatePasswordHash(Long id, String encodedPassword);
     void deleteUserById(Long id);
     boolean existsByEmail(String email);
 }
\ No newline at end of file
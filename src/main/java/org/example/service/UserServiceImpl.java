@@ -1,33 +1,75 @@
 package org.example.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.dto.CreateUserRequest;
+import org.example.dto.UpdateUserRequest;
+import org.example.dto.UserPage;
+import org.example.dto.UserSearchPage;
+import org.example.dto.UserView;
+import org.example.event.UserChangedEvent;
+import org.example.event.UserChangedEvent.FieldChange;
+import org.example.exception.DuplicateEmailException;
 import org.example.model.Role;
 import org.example.model.User;
 import org.example.repository.UserRepository;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashSet;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
 
 @Service
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String CURSOR_PREFIX = "u:";
+    private static final String EMAIL_CONSTRAINT = "uk_users_email_lower";
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_RESULTS = 1000;
+    private static final int MIN_TRIGRAM_TERM_LENGTH = 3;
+    private static final Pattern SEARCH_TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}@._-]+");
+
     private final UserRepository userRepository;
     private final RoleService roleService;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserChangeService userChangeService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     public UserServiceImpl(UserRepository userRepository,
                            RoleService roleService,
-                           PasswordEncoder passwordEncoder) {
+                           PasswordEncoder passwordEncoder,
+                           ApplicationEventPublisher eventPublisher,
+                           UserChangeService userChangeService) {
         this.userRepository = userRepository;
         this.roleService = roleService;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.userChangeService = userChangeService;
     }
 
     @Override
@@ -35,128 +77,296 @@ public class UserServiceImpl implements UserService {
         return userRepository.findAll();
     }
 
+    @Override
+    public UserPage findUsersPage(String cursor, int size, boolean descending,
+                                  String emailPrefix, String lastName, String role) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String emailPattern = hasText(emailPrefix) ? escapeLike(User.normalizeEmail(emailPrefix)) + "%" : null;
+        String lastNameFilter = hasText(lastName) ? lastName.trim() : null;
+        String roleFilter = hasText(role) ? role.trim() : null;
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        // read before the page so that changes racing with it are replayed by the feed
+        Long changeSeq = cursor == null ? userChangeService.currentSeq() : null;
+
+        List<UserView> users;
+        if (descending) {
+            long beforeId = cursor != null ? decodeCursor(cursor) : Long.MAX_VALUE;
+            users = userRepository.findPageBefore(beforeId, emailPattern, lastNameFilter, roleFilter, limit);
+        } else {
+            long afterId = cursor != null ? decodeCursor(cursor) : 0L;
+            users = userRepository.findPageAfter(afterId, emailPattern, lastNameFilter, roleFilter, limit);
+        }
+
+        String nextCursor = null;
+        if (users.size() > pageSize) {
+            users = users.subList(0, pageSize);
+            nextCursor = encodeCursor(users.get(pageSize - 1).id());
+        }
+        return new UserPage(users, nextCursor, changeSeq);
+    }
+
     @Override
     public User findUserById(Long id) {
-        return userRepository.findById(id)
+        User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        Hibernate.initialize(user.getRoles());
+        return user;
     }
 
+    /**
+     * Served from the second-level cache unless the cached user is older than
+     * {@code version}, which happens when another instance changed it.
+     */
     @Override
-    public User findUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
+    public UserView findUserViewById(Long id, long version) {
+        User user = findUserById(id);
+        if (user.getVersion() < version) {
+            entityManager.detach(user);
+            SessionFactory sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+            sessionFactory.getCache().evictEntityData(User.class, id);
+            sessionFactory.getCache().evictCollectionData(User.class.getName() + ".roles", id);
+            user = findUserById(id);
+        }
+        return UserView.from(user);
     }
 
     @Override
-    @Transactional
-    public User createUserFromMap(Map<String, Object> userData) {
-        validateUserData(userData, true);
+    public UserSearchPage searchUsers(String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        int offset = Math.max(0, page) * pageSize;
+        String term = query != null ? query.trim().toLowerCase(Locale.ROOT) : "";
+        String tsQuery = toPrefixQuery(term);
+        if (tsQuery.isEmpty() || offset >= MAX_SEARCH_RESULTS) {
+            return new UserSearchPage(List.of(), page, false);
+        }
+
+        List<Long> ids = List.of();
+        for (SearchTier tier : searchTiers(term, tsQuery)) {
+            ids = tier.page().find(pageSize + 1, offset);
+            // a later page of an exhausted tier must not fall through to a looser one
+            if (!ids.isEmpty() || (offset > 0 && tier.matchesAny().getAsBoolean())) {
+                break;
+            }
+        }
+        boolean hasMore = ids.size() > pageSize && offset + pageSize < MAX_SEARCH_RESULTS;
+        if (ids.size() > pageSize) {
+            ids = ids.subList(0, pageSize);
+        }
+        if (ids.isEmpty()) {
+            return new UserSearchPage(List.of(), page, false);
+        }
 
-        String email = (String) userData.get("email");
-        if (existsByEmail(email)) {
-            throw new RuntimeException("User with email " + email + " already exists");
+        Map<Long, UserView> views = new HashMap<>();
+        for (UserView view : userRepository.findViewsByIds(ids)) {
+            views.put(view.id(), view);
+        }
+        List<UserView> users = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            UserView view = views.get(id);
+            if (view != null) {
+                users.add(view);
+            }
         }
+        return new UserSearchPage(users, page, hasMore);
+    }
 
-        User user = new User();
-        user.setFirstName((String) userData.get("firstName"));
-        user.setLastName((String) userData.get("lastName"));
-        user.setAge(userData.get("age") != null ?
-                Integer.parseInt(userData.get("age").toString()) : 0);
-        user.setEmail(email);
-        user.setPassword(passwordEncoder.encode((String) userData.get("password")));
+    @Override
+    public long findUserVersion(Long id) {
+        return userRepository.findVersionById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+    }
 
-        setUserRolesFromMap(user, userData);
+    @Override
+    public long getUsersRevision() {
+        return userChangeService.currentSeq();
+    }
 
-        return userRepository.save(user);
+    @Override
+    public User findUserByEmail(String email) {
+        return userRepository.findByEmail(User.normalizeEmail(email))
+                .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
     }
 
     @Override
     @Transactional
-    public User updateUserFromMap(Long id, Map<String, Object> userData) {
-        validateUserData(userData, false);
+    public UserView createUser(CreateUserRequest request) {
+        User user = new User();
+        user.setFirstName(request.firstName());
+        user.setLastName(request.lastName());
+        user.setAge(request.age() != null ? request.age() : 0);
+        user.setEmail(request.email());
+        user.setPassword(passwordEncoder.encode(request.password()));
+        user.setRoles(resolveRoles(request.roles()));
 
+        User savedUser = saveEnforcingUniqueEmail(user);
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.CREATED,
+                savedUser.getId(), savedUser.getEmail(), null, UserSnapshot.created(savedUser)));
+        return UserView.from(savedUser);
+    }
+
+    @Override
+    @Transactional
+    public UserView updateUser(Long id, UpdateUserRequest request) {
         User existingUser = findUserById(id);
+        String previousEmail = existingUser.getEmail();
+        Map<String, Object> before = UserSnapshot.of(existingUser);
 
-        if (userData.containsKey("firstName")) {
-            existingUser.setFirstName((String) userData.get("firstName"));
+        if (request.firstName() != null) {
+            existingUser.setFirstName(request.firstName());
         }
-        if (userData.containsKey("lastName")) {
-            existingUser.setLastName((String) userData.get("lastName"));
+        if (request.lastName() != null) {
+            existingUser.setLastName(request.lastName());
         }
-        if (userData.containsKey("age")) {
-            existingUser.setAge(Integer.parseInt(userData.get("age").toString()));
+        if (request.age() != null) {
+            existingUser.setAge(request.age());
         }
-
-        if (userData.containsKey("email")) {
-            String newEmail = (String) userData.get("email");
-            if (!newEmail.equals(existingUser.getEmail()) && existsByEmail(newEmail)) {
-                throw new RuntimeException("Email " + newEmail + " is already in use");
-            }
-            existingUser.setEmail(newEmail);
+        if (request.email() != null) {
+            existingUser.setEmail(request.email());
         }
-
-        if (userData.containsKey("password") &&
-                userData.get("password") != null &&
-                !((String) userData.get("password")).trim().isEmpty()) {
-            existingUser.setPassword(passwordEncoder.encode((String) userData.get("password")));
+        if (request.roles() != null) {
+            existingUser.setRoles(resolveRoles(request.roles()));
         }
 
-        if (userData.containsKey("roles")) {
-            setUserRolesFromMap(existingUser, userData);
+        Map<String, FieldChange> changes = new LinkedHashMap<>();
+        UserSnapshot.of(existingUser).forEach((field, value) -> {
+            if (!Objects.equals(before.get(field), value)) {
+                changes.put(field, new FieldChange(before.get(field), value));
+            }
+        });
+        if (hasText(request.password())) {
+            existingUser.setPassword(passwordEncoder.encode(request.password()));
+            changes.put("password", new FieldChange(FieldChange.REDACTED, FieldChange.REDACTED));
         }
 
-        return userRepository.save(existingUser);
+        User savedUser = saveEnforcingUniqueEmail(existingUser);
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.UPDATED,
+                savedUser.getId(), savedUser.getEmail(), previousEmail, changes));
+        return UserView.from(savedUser);
+    }
+
+    @Override
+    @Transactional
+    public void updatePasswordHash(Long id, String encodedPassword) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        user.setPassword(encodedPassword);
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.UPDATED,
+                id, user.getEmail(), null));
     }
 
     @Override
     @Transactional
     public void deleteUserById(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found with id: " + id);
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        Map<String, FieldChange> changes = new LinkedHashMap<>();
+        UserSnapshot.of(user).forEach((field, value) -> changes.put(field, new FieldChange(value, null)));
+        userRepository.delete(user);
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.DELETED,
+                id, user.getEmail(), null, changes));
     }
 
     @Override
     public boolean existsByEmail(String email) {
-        return userRepository.existsByEmail(email);
+        return userRepository.existsByEmail(User.normalizeEmail(email));
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return userRepository.findByEmail(email)
+        return userRepository.findByEmail(User.normalizeEmail(email))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
     }
 
-    private void validateUserData(Map<String, Object> userData, boolean isCreate) {
-        if (isCreate) {
-            if (userData.get("firstName") == null || ((String) userData.get("firstName")).trim().isEmpty()) {
-                throw new RuntimeException("First name is required");
-            }
-            if (userData.get("email") == null || ((String) userData.get("email")).trim().isEmpty()) {
-                throw new RuntimeException("Email is required");
+    /**
+     * Flushes right away so that a duplicate email surfaces here, from the unique index,
+     * rather than at commit; no read-then-write check can be raced by a concurrent insert.
+     */
+    private User saveEnforcingUniqueEmail(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && EMAIL_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+                throw new DuplicateEmailException(user.getEmail(), e);
             }
-            if (userData.get("password") == null || ((String) userData.get("password")).trim().isEmpty()) {
-                throw new RuntimeException("Password is required");
+            throw e;
+        }
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    /**
+     * Progressively looser matching: word prefixes, then substrings, then trigram
+     * similarity. A looser tier only runs when the stricter ones match nothing. Each tier
+     * ranks its first {@value #MAX_SEARCH_RESULTS} matches by id, which bounds the work
+     * for common terms and gives every page of a query the same set to rank, so pages
+     * never overlap.
+     */
+    private List<SearchTier> searchTiers(String term, String tsQuery) {
+        SearchTier prefix = new SearchTier(
+                (limit, offset) -> userRepository.searchIdsByPrefix(tsQuery, MAX_SEARCH_RESULTS, limit, offset),
+                () -> userRepository.existsByPrefix(tsQuery));
+        // trigram indexes need at least one full trigram
+        if (term.length() < MIN_TRIGRAM_TERM_LENGTH) {
+            return List.of(prefix);
+        }
+        String pattern = "%" + escapeLike(term) + "%";
+        return List.of(prefix,
+                new SearchTier(
+                        (limit, offset) -> userRepository.searchIdsBySubstring(term, pattern, MAX_SEARCH_RESULTS, limit, offset),
+                        () -> userRepository.existsBySubstring(pattern)),
+                new SearchTier(
+                        (limit, offset) -> userRepository.searchIdsBySimilarity(term, MAX_SEARCH_RESULTS, limit, offset),
+                        () -> userRepository.existsBySimilarity(term)));
+    }
+
+    private static String toPrefixQuery(String term) {
+        StringJoiner query = new StringJoiner(" & ");
+        for (String token : SEARCH_TOKEN_SEPARATOR.split(term)) {
+            if (!token.isEmpty()) {
+                query.add(token + ":*");
             }
         }
+        return query.toString();
+    }
+
+    private static String encodeCursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
 
-        if (userData.containsKey("email") && userData.get("email") != null) {
-            String email = (String) userData.get("email");
-            if (email.trim().isEmpty()) {
-                throw new RuntimeException("Email cannot be empty");
+    private static long decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new RuntimeException("Invalid cursor: " + cursor);
             }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
         }
     }
 
-    private void setUserRolesFromMap(User user, Map<String, Object> userData) {
-        if (userData.get("roles") != null && userData.get("roles") instanceof List) {
-            Set<String> roleNames = new HashSet<>((List<String>) userData.get("roles"));
-            Set<Role> roles = roleService.findRolesByNames(roleNames);
-            user.setRoles(roles);
-        } else {
-            Role userRole = roleService.findRoleByName("USER");
-            user.setRoles(Set.of(userRole));
+    private Set<Role> resolveRoles(Set<String> roleNames) {
+        if (roleNames != null) {
+            return roleService.findRolesByNames(roleNames);
         }
+        return Set.of(roleService.findRoleByName("USER"));
+    }
+
+    private record SearchTier(SearchPage page, BooleanSupplier matchesAny) {
+    }
+
+    @FunctionalInterface
+    private interface SearchPage {
+        List<Long> find(int limit, int offset);
     }
-}
\ No newline at end of file
+}
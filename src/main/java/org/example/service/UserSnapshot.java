@@ -0,0 +1,38 @@
+package org.example.service;
+
+import org.example.event.UserChangedEvent.FieldChange;
+import org.example.model.Role;
+import org.example.model.User;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The audited fields of a user; roles as a sorted list of names so that snapshots
+ * compare by value.
+ */
+final class UserSnapshot {
+
+    private UserSnapshot() {
+    }
+
+    static Map<String, Object> of(User user) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("firstName", user.getFirstName());
+        fields.put("lastName", user.getLastName());
+        fields.put("age", user.getAge());
+        fields.put("email", user.getEmail());
+        fields.put("roles", user.getRoles().stream().map(Role::getName).sorted().toList());
+        return fields;
+    }
+
+    /**
+     * The changes recorded for a new user: every audited field, from nothing to its
+     * initial value.
+     */
+    static Map<String, FieldChange> created(User user) {
+        Map<String, FieldChange> changes = new LinkedHashMap<>();
+        of(user).forEach((field, value) -> changes.put(field, new FieldChange(null, value)));
+        return changes;
+    }
+}
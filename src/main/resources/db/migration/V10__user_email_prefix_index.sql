@@ -0,0 +1,3 @@
+-- Email prefix filter of the admin listing (lower(email) like 'prefix%'). The unique index
+-- on lower(email) cannot serve it unless the database collation is C.
+create index if not exists idx_users_email_lower_prefix on users (lower(email) text_pattern_ops);
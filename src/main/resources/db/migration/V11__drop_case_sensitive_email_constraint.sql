@@ -0,0 +1,21 @@
+-- V3 dropped the case-sensitive unique constraint on users(email) by the name Hibernate
+-- gave it in V1. A schema Hibernate created before that baseline may carry it under
+-- another name, and then it survived V3 and still rejects emails differing only in case
+-- from rows written before normalization. It is looked up in the catalog instead.
+do $$
+declare
+    constraint_name name;
+begin
+    for constraint_name in
+        select c.conname
+        from pg_constraint c
+        join pg_attribute a on a.attrelid = c.conrelid and a.attnum = any (c.conkey)
+        where c.conrelid = 'users'::regclass
+          and c.contype = 'u'
+          and cardinality(c.conkey) = 1
+          and a.attname = 'email'
+    loop
+        execute format('alter table users drop constraint %I', constraint_name);
+    end loop;
+end
+$$;
@@ -0,0 +1,34 @@
+-- Schema as Hibernate's ddl-auto=update created it before Flyway was introduced.
+-- Databases created that way are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and continue at V2. Later migrations use
+-- "if not exists" because databases kept on ddl-auto=update in between may already
+-- have some of their objects.
+create table roles (
+    id bigserial not null,
+    name varchar(255) not null,
+    primary key (id)
+);
+
+create table user_roles (
+    user_id bigint not null,
+    role_id bigint not null,
+    primary key (user_id, role_id)
+);
+
+create table users (
+    id bigserial not null,
+    age integer not null,
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    password varchar(255) not null,
+    primary key (id)
+);
+
+alter table if exists roles add constraint UK_ofx66keruapi6vyqpv6f2or37 unique (name);
+
+alter table if exists users add constraint UK_6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table if exists user_roles add constraint FKh8ciramu9cc9q3qcqiv4ue8a6 foreign key (role_id) references roles;
+
+alter table if exists user_roles add constraint FKhfh9dx7w3ubf1co1vdev94g3f foreign key (user_id) references users;
@@ -0,0 +1,21 @@
+-- Ids come from pooled sequences instead of IDENTITY (bigserial) columns. Tables created
+-- before the switch already hold ids, so move each sequence past the current maximum.
+-- pooled-lo hands out [value, value + 50).
+create sequence if not exists users_seq start with 1 increment by 50;
+
+create sequence if not exists roles_seq start with 1 increment by 50;
+
+select setval('users_seq', (select max(id) + 1 from users), false)
+where (select max(id) from users) >= (select last_value from users_seq);
+
+select setval('roles_seq', (select max(id) + 1 from roles), false)
+where (select max(id) from roles) >= (select last_value from roles_seq);
+
+-- the serial defaults would hand out ids the sequences above also hand out
+alter table users alter column id drop default;
+
+alter table roles alter column id drop default;
+
+drop sequence if exists users_id_seq;
+
+drop sequence if exists roles_id_seq;
@@ -0,0 +1,9 @@
+-- Emails are normalized (trimmed, lower-cased) on write; bring older rows in line first.
+-- This fails if two existing accounts differ only in case, which must be resolved by hand.
+update users set email = lower(trim(email)) where email <> lower(trim(email));
+
+-- One index serves both uniqueness and the case-insensitive login lookup. It replaces
+-- the case-sensitive constraint Hibernate generated for the email column.
+create unique index if not exists uk_users_email_lower on users (lower(email));
+
+alter table users drop constraint if exists uk_6dotkott2kjsp8vw4d0m25fb7;
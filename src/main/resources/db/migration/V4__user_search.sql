@@ -0,0 +1,19 @@
+-- Search support for /api/admin/users/search. Both columns are generated, so PostgreSQL
+-- keeps them current on every insert and update without any application code.
+create extension if not exists pg_trgm;
+
+alter table users add column if not exists search_text text
+    generated always as (lower(first_name || ' ' || last_name || ' ' || email)) stored;
+
+alter table users add column if not exists search_vector tsvector
+    generated always as (
+        setweight(to_tsvector('simple', coalesce(first_name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(last_name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(email, '')), 'B')
+    ) stored;
+
+-- substring (like '%term%') and fuzzy (term <% search_text) matching
+create index if not exists idx_users_search_text_trgm on users using gin (search_text gin_trgm_ops);
+
+-- word prefix matching (to_tsquery('simple', 'term:*'))
+create index if not exists idx_users_search_vector on users using gin (search_vector);
@@ -0,0 +1,17 @@
+-- Optimistic locking version (strong ETags) and the change log behind the admin delta
+-- feed, plus the index serving the last name filter of the admin listing.
+alter table users add column if not exists version bigint default 0 not null;
+
+create index if not exists idx_users_last_name on users (last_name);
+
+create sequence if not exists user_changes_seq start with 1 increment by 50;
+
+create table if not exists user_changes (
+    seq bigint not null,
+    user_id bigint not null,
+    changed_at timestamp(6) with time zone not null,
+    type varchar(16) not null check (type in ('UPSERT', 'DELETE')),
+    primary key (seq)
+);
+
+create index if not exists idx_user_changes_user_seq on user_changes (user_id, seq);
@@ -0,0 +1,11 @@
+-- Refresh tokens of the bearer-token API, stored as SHA-256 hashes.
+create table if not exists refresh_tokens (
+    token_hash varchar(43) not null,
+    user_id bigint not null,
+    expires_at timestamp(6) with time zone not null,
+    primary key (token_hash)
+);
+
+create index if not exists idx_refresh_tokens_user on refresh_tokens (user_id);
+
+create index if not exists idx_refresh_tokens_expires on refresh_tokens (expires_at);
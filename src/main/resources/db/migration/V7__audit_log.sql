@@ -0,0 +1,13 @@
+-- Append-only audit trail of user changes, written in batches by AuditLogWriter.
+create table if not exists audit_log (
+    id bigserial not null,
+    occurred_at timestamp(6) with time zone not null,
+    user_id bigint not null,
+    actor_id bigint,
+    actor varchar(255) not null,
+    action varchar(16) not null check (action in ('CREATED', 'UPDATED', 'DELETED')),
+    changes text not null,
+    primary key (id)
+);
+
+create index if not exists idx_audit_log_user_id on audit_log (user_id, id);
@@ -0,0 +1,14 @@
+-- Positions in the user change log are taken from a counter row that each writer locks
+-- until it commits, so they follow commit order. It replaces the pooled sequence, whose
+-- values followed insert order.
+create table if not exists user_change_counter (
+    id integer not null,
+    seq bigint not null,
+    primary key (id)
+);
+
+insert into user_change_counter (id, seq)
+select 1, coalesce(max(seq), 0) from user_changes
+on conflict (id) do nothing;
+
+drop sequence if exists user_changes_seq;
@@ -0,0 +1,8 @@
+-- The highest position compaction may have removed, kept with the counter so that every
+-- instance sends clients behind it to a full reload. Rows removed before this column
+-- existed can only be bounded by the oldest one left.
+alter table user_change_counter add column if not exists horizon bigint not null default 0;
+
+update user_change_counter
+set horizon = (select coalesce(min(seq), 1) - 1 from user_changes)
+where id = 1;
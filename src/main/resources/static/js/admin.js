@@ -4,6 +4,21 @@ class App {
         this.isAdmin = false;
         this.users = [];
         this.roles = [];
+        this.nextCursor = null;
+        this.searchQuery = '';
+        this.searchResults = null;
+        this.searchPage = 0;
+        this.searchHasMore = false;
+        this.searchTimer = null;
+        this.changeSeq = null;
+        this.syncing = false;
+        this.syncPending = false;
+        this.userEvents = null;
+        this.tokens = null;
+        this.tokenExpiresAt = 0;
+        this.tokenRequest = null;
+        this.pageSize = 50;
+        this.validators = new Map();
 
         this.setupTableEvents = this.setupTableEvents.bind(this);
         this.openEditModal = this.openEditModal.bind(this);
@@ -15,6 +30,7 @@ class App {
     async init() {
         console.log('App initializing...');
         try {
+            await this.obtainTokens();
             await this.loadCurrentUser();
             console.log('Current user loaded, isAdmin:', this.isAdmin);
 
@@ -31,12 +47,87 @@ class App {
         }
     }
 
+    // the API is stateless: the page session is exchanged once for a bearer token pair
+    async obtainTokens() {
+        const response = await fetch('/auth/session-token', { method: 'POST', redirect: 'manual' });
+        if (!response.ok) {
+            window.location.href = '/login';
+            throw new Error('Session expired');
+        }
+        this.storeTokens(await response.json());
+    }
+
+    storeTokens(tokens) {
+        this.tokens = tokens;
+        this.tokenExpiresAt = Date.now() + (tokens.expiresIn - 30) * 1000;
+    }
+
+    refreshTokens() {
+        if (!this.tokenRequest) {
+            this.tokenRequest = (async () => {
+                const response = await fetch('/api/auth/refresh', {
+                    method: 'POST',
+                    headers: { 'Content-Type': 'application/json' },
+                    body: JSON.stringify({ refreshToken: this.tokens.refreshToken })
+                });
+                if (response.ok) {
+                    this.storeTokens(await response.json());
+                } else {
+                    await this.obtainTokens();
+                }
+            })().finally(() => {
+                this.tokenRequest = null;
+            });
+        }
+        return this.tokenRequest;
+    }
+
+    async accessToken() {
+        if (Date.now() >= this.tokenExpiresAt) {
+            await this.refreshTokens();
+        }
+        return this.tokens.accessToken;
+    }
+
+    async apiFetch(url, options = {}) {
+        const send = async () => fetch(url, {
+            ...options,
+            headers: { ...options.headers, 'Authorization': `Bearer ${await this.accessToken()}` }
+        });
+        const response = await send();
+        if (response.status !== 401) {
+            return response;
+        }
+        await this.refreshTokens();
+        return send();
+    }
+
+    async fetchWithValidator(url) {
+        const cached = this.validators.get(url);
+        const headers = cached ? { 'If-None-Match': cached.etag } : {};
+        const response = await this.apiFetch(url, { headers });
+
+        if (response.status === 304 && cached) {
+            return { ok: true, status: 304, data: cached.data };
+        }
+        if (!response.ok) {
+            return { ok: false, status: response.status, data: null };
+        }
+
+        const data = await response.json();
+        const etag = response.headers.get('ETag');
+        if (etag) {
+            this.validators.set(url, { etag, data });
+        }
+        return { ok: true, status: response.status, data };
+    }
+
     async loadCurrentUser() {
         try {
             console.log('Loading current user...');
-            const response = await fetch('/api/user/info');
+            const response = await this.fetchWithValidator('/api/user/info');
             if (response.ok) {
-                this.currentUser = await response.json();
+                this.currentUser = response.data;
                 this.isAdmin = this.currentUser.roles.some(role => role.name === 'ADMIN');
                 this.updateUserInfo();
                 this.updateNavigation();
@@ -95,6 +186,7 @@ class App {
             await this.loadRoles();
             await this.loadUsers();
             this.setupAdminEventListeners();
+            this.subscribeToUserEvents();
             this.renderAdminPage();
         } catch (error) {
             console.error('Admin page init error:', error);
@@ -152,9 +244,9 @@ class App {
     async loadRoles() {
         try {
             console.log('Loading roles...');
-            const response = await fetch('/api/admin/roles');
+            const response = await this.fetchWithValidator('/api/admin/roles');
             if (response.ok) {
-                this.roles = await response.json();
+                this.roles = response.data;
                 console.log('Roles loaded:', this.roles.length);
                 this.populateRoleSelects();
             }
@@ -164,12 +256,114 @@ class App {
     }
 
     async loadUsers() {
+        this.users = [];
+        this.nextCursor = null;
+        this.changeSeq = null;
+        await this.loadUsersPage();
+    }
+
+    async syncChanges() {
+        if (this.changeSeq === null) {
+            await this.loadUsers();
+            return;
+        }
+        try {
+            let hasMore = true;
+            while (hasMore) {
+                const response = await this.apiFetch(`/api/admin/users/changes?since=${this.changeSeq}`);
+                if (!response.ok) {
+                    await this.loadUsers();
+                    return;
+                }
+                const changes = await response.json();
+                if (changes.reset) {
+                    await this.loadUsers();
+                    return;
+                }
+                this.applyUserChanges(changes);
+                this.changeSeq = changes.latest;
+                hasMore = changes.hasMore;
+            }
+            if (this.searchQuery) {
+                await this.searchUsers(this.searchQuery);
+            } else {
+                this.renderUsersTable();
+            }
+        } catch (error) {
+            console.error('Failed to sync users:', error);
+        }
+    }
+
+    async subscribeToUserEvents() {
+        if (!window.EventSource || this.userEvents) return;
+
+        const token = encodeURIComponent(await this.accessToken());
+        this.userEvents = new EventSource(`/api/admin/users/events?access_token=${token}`);
+        this.userEvents.addEventListener('users', () => this.scheduleSync());
+        // the server drops slow subscribers; catch up on every (re)connect
+        this.userEvents.onopen = () => this.scheduleSync();
+        // a reconnect with an expired token is rejected for good; resubscribe with a fresh one
+        this.userEvents.onerror = () => {
+            if (this.userEvents.readyState === EventSource.CLOSED) {
+                this.userEvents = null;
+                setTimeout(() => this.subscribeToUserEvents(), 5000);
+            }
+        };
+    }
+
+    scheduleSync() {
+        if (this.syncing) {
+            this.syncPending = true;
+            return;
+        }
+        this.syncing = true;
+        this.syncChanges().finally(() => {
+            this.syncing = false;
+            if (this.syncPending) {
+                this.syncPending = false;
+                this.scheduleSync();
+            }
+        });
+    }
+
+    applyUserChanges(changes) {
+        const deleted = new Set(changes.deletes);
+        this.users = this.users.filter(user => !deleted.has(user.id));
+        changes.upserts.forEach(user => {
+            const index = this.users.findIndex(u => u.id === user.id);
+            if (index >= 0) {
+                this.users[index] = user;
+            } else if (!this.nextCursor) {
+                this.users.push(user);
+            }
+        });
+    }
+
+    async loadMoreUsers() {
+        if (this.searchResults !== null) {
+            if (this.searchHasMore) {
+                await this.searchUsers(this.searchQuery, this.searchPage + 1);
+            }
+        } else if (this.nextCursor) {
+            await this.loadUsersPage(this.nextCursor);
+        }
+    }
+
+    async loadUsersPage(cursor) {
         try {
             console.log('Loading users...');
-            const response = await fetch('/api/admin/users');
+            const params = new URLSearchParams({ size: this.pageSize });
+            if (cursor) {
+                params.set('cursor', cursor);
+            }
+            const response = await this.fetchWithValidator(`/api/admin/users?${params}`);
             if (response.ok) {
-                const data = await response.json();
-                this.users = data.users || [];
+                const data = response.data;
+                this.users = this.users.concat(data.users || []);
+                this.nextCursor = data.nextCursor || null;
+                if (data.changeSeq !== undefined && data.changeSeq !== null) {
+                    this.changeSeq = data.changeSeq;
+                }
                 console.log('Users loaded:', this.users.length);
                 this.renderUsersTable();
             }
@@ -178,6 +372,33 @@ class App {
         }
     }
 
+    scheduleSearch(query) {
+        clearTimeout(this.searchTimer);
+        this.searchTimer = setTimeout(() => this.searchUsers(query.trim()), 250);
+    }
+
+    async searchUsers(query, page = 0) {
+        this.searchQuery = query;
+        if (!query) {
+            this.searchResults = null;
+            this.renderUsersTable();
+            return;
+        }
+        try {
+            const params = new URLSearchParams({ q: query, page, size: this.pageSize });
+            const response = await this.apiFetch(`/api/admin/users/search?${params}`);
+            // a newer query may have been typed while this one was in flight
+            if (!response.ok || query !== this.searchQuery) return;
+            const data = await response.json();
+            this.searchResults = page === 0 ? data.users : this.searchResults.concat(data.users);
+            this.searchPage = data.page;
+            this.searchHasMore = data.hasMore;
+            this.renderUsersTable();
+        } catch (error) {
+            console.error('Failed to search users:', error);
+        }
+    }
+
     populateRoleSelects() {
         if (this.roles.length === 0) return;
 
@@ -198,10 +419,14 @@ class App {
         const container = document.getElementById('usersTableContainer');
         if (!container) return;
 
-        if (this.users.length === 0) {
+        const searching = this.searchResults !== null;
+        const users = searching ? this.searchResults : this.users;
+        const hasMore = searching ? this.searchHasMore : this.nextCursor;
+
+        if (users.length === 0) {
             container.innerHTML = `
                 <div class="alert alert-info">
-                    No users found. Create the first user.
+                    ${searching ? 'No users match the search.' : 'No users found. Create the first user.'}
                 </div>
             `;
             return;
@@ -223,7 +448,7 @@ class App {
                         </tr>
                     </thead>
                     <tbody>
-                        ${this.users.map(user => `
+                        ${users.map(user => `
                             <tr>
                                 <td>${user.id}</td>
                                 <td>${user.firstName}</td>
@@ -248,6 +473,11 @@ class App {
                     </tbody>
                 </table>
             </div>
+            ${hasMore ? `
+                <div class="text-center mb-3">
+                    <button class="btn btn-outline-primary btn-sm" id="loadMoreUsersBtn">Load more</button>
+                </div>
+            ` : ''}
         `;
         this.setupTableEvents();
 
@@ -267,6 +497,10 @@ class App {
             this.openEditModal(userId);
         });
 
+        $(document).off('click', '#loadMoreUsersBtn').on('click', '#loadMoreUsersBtn', async () => {
+            await this.loadMoreUsers();
+        });
+
         $(document).off('click', '.delete-user-btn').on('click', '.delete-user-btn', (e) => {
             console.log('Delete button clicked');
             const userId = $(e.currentTarget).data('user-id');
@@ -292,6 +526,10 @@ class App {
             await this.deleteUser();
         });
 
+        $('#userSearchInput').off('input').on('input', (e) => {
+            this.scheduleSearch(e.target.value);
+        });
+
         $('#users-tab').off('click').on('click', (e) => {
             e.preventDefault();
             this.activateTab('users-tab', 'usersTab');
@@ -314,7 +552,7 @@ class App {
 
         $('#logoutForm').off('submit').on('submit', (e) => {
             e.preventDefault();
-            window.location.href = '/logout';
+            this.logout();
         });
     }
 
@@ -330,21 +568,34 @@ class App {
 
         $('#logoutForm').off('submit').on('submit', (e) => {
             e.preventDefault();
-            window.location.href = '/logout';
+            this.logout();
         });
     }
+    async logout() {
+        if (this.userEvents) {
+            this.userEvents.close();
+        }
+        if (this.tokens) {
+            await fetch('/api/auth/revoke', {
+                method: 'POST',
+                headers: { 'Content-Type': 'application/json' },
+                body: JSON.stringify({ refreshToken: this.tokens.refreshToken })
+            }).catch(() => {});
+        }
+        window.location.href = '/logout';
+    }
+
     async openEditModal(userId) {
         console.log('Opening edit modal for user:', userId);
         try {
-            const response = await fetch(`/api/admin/users/${userId}`);
+            const response = await this.fetchWithValidator(`/api/admin/users/${userId}`);
             if (response.ok) {
-                const user = await response.json();
+                const user = response.data;
                 console.log('User data loaded for edit:', user);
                 this.fillEditModal(user);
                 $('#editUserModal').modal('show');
             } else {
-                const errorData = await response.json();
-                console.error('Failed to load user for edit:', errorData);
+                console.error('Failed to load user for edit, status:', response.status);
             }
         } catch (error) {
             console.error('Failed to open edit modal:', error);
@@ -368,15 +619,14 @@ class App {
     async openDeleteModal(userId) {
         console.log('Opening delete modal for user:', userId);
         try {
-            const response = await fetch(`/api/admin/users/${userId}`);
+            const response = await this.fetchWithValidator(`/api/admin/users/${userId}`);
             if (response.ok) {
-                const user = await response.json();
+                const user = response.data;
                 console.log('User data loaded for delete:', user);
                 this.fillDeleteModal(user);
                 $('#deleteUserModal').modal('show');
             } else {
-                const errorData = await response.json();
-                console.error('Failed to load user for delete:', errorData);
+                console.error('Failed to load user for delete, status:', response.status);
             }
         } catch (error) {
             console.error('Failed to open delete modal:', error);
@@ -408,7 +658,7 @@ class App {
         };
 
         try {
-            const response = await fetch('/api/admin/users', {
+            const response = await this.apiFetch('/api/admin/users', {
                 method: 'POST',
                 headers: { 'Content-Type': 'application/json' },
                 body: JSON.stringify(formData)
@@ -416,7 +666,7 @@ class App {
 
             if (response.ok) {
                 $('#createUserForm')[0].reset();
-                await this.loadUsers();
+                this.scheduleSync();
                 this.activateTab('users-tab', 'usersTab');
             } else {
                 console.log('Failed to create user');
@@ -438,7 +688,7 @@ class App {
         };
 
         try {
-            const response = await fetch(`/api/admin/users/${userId}`, {
+            const response = await this.apiFetch(`/api/admin/users/${userId}`, {
                 method: 'PUT',
                 headers: { 'Content-Type': 'application/json' },
                 body: JSON.stringify(formData)
@@ -446,9 +696,11 @@ class App {
 
             if (response.ok) {
                 $('#editUserModal').modal('hide');
-                await this.loadUsers();
+                this.scheduleSync();
 
-                if (this.currentUser && this.currentUser.id === userId) {
+                // the current user's details come from token claims
+                if (this.currentUser && String(this.currentUser.id) === userId) {
+                    await this.refreshTokens();
                     await this.loadCurrentUser();
                 }
 
@@ -464,13 +716,13 @@ class App {
         const userId = $('#deleteUserIdField').val();
 
         try {
-            const response = await fetch(`/api/admin/users/${userId}`, {
+            const response = await this.apiFetch(`/api/admin/users/${userId}`, {
                 method: 'DELETE'
             });
 
             if (response.ok) {
                 $('#deleteUserModal').modal('hide');
-                await this.loadUsers();
+                this.scheduleSync();
             } else {
                 console.log('Failed to delete user');
             }
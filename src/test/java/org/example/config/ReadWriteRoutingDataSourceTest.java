@@ -0,0 +1,250 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.SpringBootSecurityDemoApplication;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Walks the read/write routing through its cases against two H2 databases standing in for
+ * a primary and a replica. A first start without replicas creates and seeds the schema;
+ * both databases are restored from its snapshot. The replica never receives later writes,
+ * which makes every routing decision observable: a user created through the API is only
+ * visible where the read was routed to the primary. The replica is served over H2's TCP
+ * server so that stopping the server takes it down the way a lost host would.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String H2_FLAGS = ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"");
+    private static final long STICKY_WINDOW_MILLIS = 2000;
+    private static final long HEALTH_INTERVAL_MILLIS = 1000;
+
+    private static final HttpClient http = HttpClient.newHttpClient();
+    private static int replicaPort;
+    private static Server replicaServer;
+    private static ConfigurableApplicationContext context;
+    private static MeterRegistry meters;
+    private static String base;
+    private static String admin;
+    private static HttpRequest.Builder readCreated;
+
+    @BeforeAll
+    static void start() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            replicaPort = socket.getLocalPort();
+        }
+        try (ConfigurableApplicationContext seed = startApplication("routing-seed")) {
+            restoreSnapshot(seed.getBean(JdbcTemplate.class), "routing-primary", "routing-replica");
+        }
+        replicaServer = Server.createTcpServer("-tcpPort", String.valueOf(replicaPort)).start();
+        context = startApplication("routing-primary",
+                "--app.datasource.replica-urls=jdbc:h2:tcp://localhost:" + replicaPort + "/mem:routing-replica" + H2_FLAGS,
+                "--app.datasource.read-your-writes-window=PT" + STICKY_WINDOW_MILLIS / 1000.0 + "S",
+                "--app.datasource.replica-health-interval=PT" + HEALTH_INTERVAL_MILLIS / 1000.0 + "S",
+                // reads served from the second-level cache would hide where they were routed
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        meters = context.getBean(MeterRegistry.class);
+        base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        admin = login("admin@mail.ru", "password");
+    }
+
+    @AfterAll
+    static void stop() {
+        if (context != null) {
+            context.close();
+        }
+        if (replicaServer != null) {
+            replicaServer.stop();
+        }
+    }
+
+    @Test
+    @Order(1)
+    void readOnlyRequestIsServedByTheReplica() throws Exception {
+        double replicaReads = routed("replica-1", "read-only");
+
+        assertEquals(200, send(HttpRequest.newBuilder(URI.create(base + "/api/admin/users")).GET()).statusCode());
+        assertTrue(routed("replica-1", "read-only") > replicaReads);
+    }
+
+    @Test
+    @Order(2)
+    void writerReadsItsOwnChangeFromThePrimaryInsideTheWindow() throws Exception {
+        HttpResponse<String> created = send(HttpRequest.newBuilder(URI.create(base + "/api/admin/users"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"firstName\":\"Replica\",\"lastName\":\"Check\","
+                        + "\"age\":30,\"email\":\"replica.check@mail.example\",\"password\":\"password\","
+                        + "\"roles\":[\"USER\"]}")));
+        assertEquals(201, created.statusCode());
+        Matcher matcher = ID.matcher(created.body());
+        assertTrue(matcher.find());
+        readCreated = HttpRequest.newBuilder(URI.create(base + "/api/admin/users/" + matcher.group(1))).GET();
+
+        assertEquals(200, send(readCreated).statusCode());
+    }
+
+    @Test
+    @Order(3)
+    void readsGoBackToTheReplicaAfterTheWindow() throws Exception {
+        Thread.sleep(STICKY_WINDOW_MILLIS + 500);
+
+        assertNotEquals(200, send(readCreated).statusCode());
+    }
+
+    @Test
+    @Order(4)
+    void readsFallBackToThePrimaryWhileTheReplicaIsDown() throws Exception {
+        replicaServer.stop();
+        Thread.sleep(HEALTH_INTERVAL_MILLIS * 3);
+        assertEquals(0, meters.get("app.db.replicas.healthy").gauge().value());
+
+        double fallbackReads = routed("primary", "no-replica");
+        assertEquals(200, send(readCreated).statusCode());
+        assertTrue(routed("primary", "no-replica") > fallbackReads);
+    }
+
+    @Test
+    @Order(5)
+    void restartedReplicaIsPutBackInRotation() throws Exception {
+        replicaServer = Server.createTcpServer("-tcpPort", String.valueOf(replicaPort)).start();
+        Thread.sleep(HEALTH_INTERVAL_MILLIS * 3);
+
+        assertEquals(1, meters.get("app.db.replicas.healthy").gauge().value());
+        assertNotEquals(200, send(readCreated).statusCode());
+    }
+
+    @Test
+    void perCallCredentialsGoToThePrimary() throws Exception {
+        HikariDataSource primary = mock(HikariDataSource.class);
+        Connection connection = mock(Connection.class);
+        when(primary.getConnection("reporting", "secret")).thenReturn(connection);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, List.of(),
+                Duration.ofSeconds(5), 100, new SimpleMeterRegistry());
+
+        assertSame(connection, routing.getConnection("reporting", "secret"));
+        verify(primary).getConnection("reporting", "secret");
+    }
+
+    @Test
+    void eachPoolIsLimitedToItsOwnSize() throws Exception {
+        HikariDataSource primary = pool("primary", 2);
+        HikariDataSource replica = pool("replica-1", 5);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, List.of(replica),
+                Duration.ofSeconds(5), 100, new SimpleMeterRegistry());
+        routing.limitConnections(0, Duration.ofMillis(100));
+        Map<String, ConnectionLimitingDataSource> limiters = routing.getConnectionLimiters();
+        assertEquals(2, limiters.get("primary").getAvailablePermits());
+        assertEquals(5, limiters.get("replica-1").getAvailablePermits());
+
+        routing.getConnection();
+        routing.getConnection();
+        assertThrows(SQLTransientConnectionException.class, routing::getConnection);
+
+        // writers holding every primary connection do not hold up reads
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            routing.getConnection();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+        assertEquals(4, limiters.get("replica-1").getAvailablePermits());
+    }
+
+    private static HikariDataSource pool(String name, int size) throws Exception {
+        HikariDataSource pool = mock(HikariDataSource.class);
+        when(pool.getPoolName()).thenReturn(name);
+        when(pool.getMaximumPoolSize()).thenReturn(size);
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        return pool;
+    }
+
+    private static ConfigurableApplicationContext startApplication(String database, String... args) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + database + H2_FLAGS));
+        arguments.addAll(List.of(args));
+        return new SpringApplicationBuilder(SpringBootSecurityDemoApplication.class)
+                .run(arguments.toArray(String[]::new));
+    }
+
+    private static void restoreSnapshot(JdbcTemplate source, String... databases) throws Exception {
+        Path script = Files.createTempFile("snapshot", ".sql");
+        try {
+            source.execute("script to '" + script + "'");
+            for (String database : databases) {
+                try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:" + database + H2_FLAGS, "sa", "");
+                     Statement statement = connection.createStatement()) {
+                    statement.execute("runscript from '" + script + "'");
+                }
+            }
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+
+    private static String login(String email, String password) throws Exception {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(base + "/api/auth/token"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = ACCESS_TOKEN.matcher(response.body());
+        assertTrue(matcher.find(), "no access token for " + email);
+        return "Bearer " + matcher.group(1);
+    }
+
+    private static HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return http.send(request.copy().setHeader("Authorization", admin).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static double routed(String target, String reason) {
+        Counter counter = meters.find("app.db.routed").tag("target", target).tag("reason", reason).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
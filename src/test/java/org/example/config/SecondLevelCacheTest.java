@@ -0,0 +1,98 @@
+package org.example.config;
+
+import org.example.dto.UserView;
+import org.example.repository.RoleRepository;
+import org.example.service.UserService;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the statements Hibernate prepares, from its statistics, for reads that should be
+ * served by the second-level and query cache and for those that must not be.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:l2cache;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true"
+})
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    private static final int READS = 10;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Statistics statistics;
+
+    private long userId;
+
+    @BeforeEach
+    void warmUp() {
+        userId = userService.findUserByEmail("user@mail.ru").getId();
+        userService.findUserViewById(userId, userService.findUserVersion(userId));
+        roleRepository.findByName("ADMIN");
+        statistics.clear();
+    }
+
+    @Test
+    void repeatedUserReadsAreServedFromTheCache() {
+        long version = userService.findUserVersion(userId);
+        statistics.clear();
+
+        for (int i = 0; i < READS; i++) {
+            userService.findUserViewById(userId, version);
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= READS);
+    }
+
+    @Test
+    void userVersionIsAlwaysReadFromTheDatabase() {
+        for (int i = 0; i < READS; i++) {
+            userService.findUserVersion(userId);
+        }
+
+        assertEquals(READS, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void userChangedBehindTheCacheIsReadAgain() {
+        // as another instance would: the row changes, this instance's cache does not
+        jdbcTemplate.update("update users set last_name = 'Elsewhere', version = version + 1 where id = ?", userId);
+
+        long version = userService.findUserVersion(userId);
+        UserView user = userService.findUserViewById(userId, version);
+
+        assertEquals("Elsewhere", user.lastName());
+        assertEquals("Elsewhere", userService.findUserViewById(userId, version).lastName());
+    }
+
+    @Test
+    void repeatedRoleLookupsAreServedFromTheQueryCache() {
+        for (int i = 0; i < READS; i++) {
+            roleRepository.findByName("ADMIN");
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(READS, statistics.getQueryCacheHitCount());
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.event.UserChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuditLogWriterTest {
+
+    private static final long BAD_USER = 13;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Set<Object> stored = ConcurrentHashMap.newKeySet();
+    private AuditLogWriter writer;
+
+    @BeforeEach
+    void start() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        writer = new AuditLogWriter(jdbcTemplate, transactionManager, new ObjectMapper(), meterRegistry,
+                64, AuditLogWriter.Overflow.DROP, Duration.ofSeconds(1), 10, Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        writer.shutdown();
+    }
+
+    @Test
+    void batchWithAnEntryTheDatabaseRejectsIsSplitAndTheRestStored() throws Exception {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            if (rows.stream().anyMatch(row -> row[4].equals(BAD_USER))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            rows.forEach(row -> stored.add(row[4]));
+            return new int[rows.size()];
+        });
+
+        for (long userId = 10; userId < 16; userId++) {
+            writer.onUserChanged(new UserChangedEvent(UserChangedEvent.Type.DELETED, userId, "u@mail.example", null));
+        }
+        awaitEntries(6);
+
+        assertEquals(Set.of(10L, 11L, 12L, 14L, 15L), stored);
+        assertEquals(5, count("written"));
+        assertEquals(1, count("rejected"));
+    }
+
+    @Test
+    void transientFailureIsRetriedUntilTheBatchIsStored() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new TransientDataAccessResourceException("connection lost");
+            }
+            List<Object[]> rows = invocation.getArgument(1);
+            rows.forEach(row -> stored.add(row[4]));
+            return new int[rows.size()];
+        });
+
+        writer.onUserChanged(new UserChangedEvent(UserChangedEvent.Type.DELETED, 1L, "u@mail.example", null));
+        awaitEntries(1);
+
+        assertEquals(Set.of(1L), stored);
+        assertEquals(2, attempts.get());
+        assertEquals(0, count("rejected"));
+    }
+
+    private void awaitEntries(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (count("written") + count("rejected") < expected && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("app.audit.entries").tag("outcome", outcome).counter().count();
+    }
+}
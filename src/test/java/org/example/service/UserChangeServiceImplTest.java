@@ -0,0 +1,95 @@
+package org.example.service;
+
+import org.example.dto.CreateUserRequest;
+import org.example.dto.UserChanges;
+import org.example.repository.UserChangeCounterRepository;
+import org.example.repository.UserChangeRepository;
+import org.example.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two service instances over one database, as two application nodes would be: the one
+ * that compacts is not the one the client asks.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:changes;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "app.user-changes.compaction-interval=P1D"
+})
+@ActiveProfiles("test")
+class UserChangeServiceImplTest {
+
+    private static final Duration RETENTION = Duration.ofDays(7);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserChangeRepository userChangeRepository;
+
+    @Autowired
+    private UserChangeCounterRepository userChangeCounterRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void clientBehindTheHorizonIsToldToReloadByAnotherInstance() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        UserChangeServiceImpl compacting = newInstance();
+        UserChangeServiceImpl serving = newInstance();
+
+        long before = serving.currentSeq();
+        long deleted = userService.createUser(new CreateUserRequest("Gone", "Soon", 40,
+                "gone.soon@mail.example", "password", Set.of("USER"))).id();
+        userService.deleteUserById(deleted);
+        userService.createUser(new CreateUserRequest("Still", "Here", 41,
+                "still.here@mail.example", "password", Set.of("USER")));
+        jdbcTemplate.update("update user_changes set changed_at = ? where user_id = ?",
+                Timestamp.from(Instant.now().minus(RETENTION.multipliedBy(2))), deleted);
+
+        assertFalse(transaction.execute(status -> serving.findChangesSince(before, 100)).reset());
+
+        transaction.executeWithoutResult(status -> compacting.compact());
+
+        UserChanges behind = transaction.execute(status -> serving.findChangesSince(before, 100));
+        assertTrue(behind.reset());
+        assertEquals(serving.currentSeq(), behind.latest());
+        assertFalse(transaction.execute(status -> serving.findChangesSince(behind.latest(), 100)).reset());
+    }
+
+    @Test
+    void passwordHashUpgradeIsNotAChange() {
+        UserChangeServiceImpl service = newInstance();
+        long userId = userService.findUserByEmail("user@mail.ru").getId();
+        long before = service.currentSeq();
+
+        userService.updatePasswordHash(userId, "{bcrypt}upgraded");
+
+        assertEquals(before, service.currentSeq());
+    }
+
+    private UserChangeServiceImpl newInstance() {
+        return new UserChangeServiceImpl(userChangeRepository, userChangeCounterRepository, userRepository, RETENTION);
+    }
+}
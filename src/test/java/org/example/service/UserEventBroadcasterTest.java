@@ -0,0 +1,112 @@
+package org.example.service;
+
+import org.example.event.UsersImportedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * One dispatch thread, a subscriber that never reads and one that does. Events are large
+ * enough that the socket of the stalled subscriber fills up long before its buffer does,
+ * which is where a blocking write would have stopped delivery to everyone.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:sse;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "app.sse.dispatch-threads=1",
+        "app.sse.buffer-size=1000"
+})
+@ActiveProfiles("test")
+class UserEventBroadcasterTest {
+
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"");
+    private static final int EVENTS = 3000;
+    private static final int USERS_PER_EVENT = 500;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserEventBroadcaster broadcaster;
+
+    @Test
+    void stalledSubscriberIsEvictedWithoutHoldingUpOthers() throws Exception {
+        String token = accessToken();
+        try (Socket stalled = new Socket()) {
+            stalled.setReceiveBufferSize(4096);
+            subscribe(stalled, token);
+            AtomicInteger received = new AtomicInteger();
+            HttpClient.newHttpClient().sendAsync(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/admin/users/events"))
+                            .header("Authorization", token)
+                            .build(),
+                    HttpResponse.BodyHandlers.ofLines()).thenAccept(response -> response.body()
+                    .filter("event:users"::equals)
+                    .forEach(line -> received.incrementAndGet()));
+            await(() -> broadcaster.subscriberCount() == 2);
+
+            UsersImportedEvent event = new UsersImportedEvent(LongStream.range(0, USERS_PER_EVENT)
+                    .mapToObj(id -> new UsersImportedEvent.ImportedUser(id, "user" + id + "@mail.example", Map.of()))
+                    .toList());
+            for (int sent = 1; sent <= EVENTS; sent++) {
+                broadcaster.onUsersImported(event);
+                if (sent % 100 == 0) {
+                    int published = sent;
+                    await(() -> received.get() >= published - 500);
+                }
+            }
+
+            await(() -> received.get() == EVENTS);
+            assertEquals(EVENTS, received.get());
+            assertEquals(1, broadcaster.subscriberCount());
+        }
+    }
+
+    private void subscribe(Socket socket, String token) throws Exception {
+        socket.connect(new InetSocketAddress("localhost", port));
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET /api/admin/users/events HTTP/1.1\r\nHost: localhost\r\n" +
+                "Authorization: " + token + "\r\nAccept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private String accessToken() throws Exception {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/token"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"email\":\"admin@mail.ru\",\"password\":\"password\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = ACCESS_TOKEN.matcher(response.body());
+        assertTrue(matcher.find(), response.body());
+        return "Bearer " + matcher.group(1);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}